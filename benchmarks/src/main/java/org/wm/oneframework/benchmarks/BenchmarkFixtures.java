@@ -0,0 +1,92 @@
+package org.wm.oneframework.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Generates the fixtures of the benchmarks under target/jmh-fixtures(-Dbench.fixtures.dir to change it). Fixtures are
+ * generated once and reused by the following runs and forks.
+ */
+final class BenchmarkFixtures {
+
+	static final String EXCEL_NAME = "Bench";
+	static final String SHEET_NAME = "Data";
+	static final int CONFIG_KEYS = 200;
+	private static final String[] ENVIRONMENTS = { "qa1", "qa2", "uat", "prod" };
+
+	private BenchmarkFixtures() {
+	}
+
+	private static File getFixturesFolder() {
+		return new File(System.getProperty("bench.fixtures.dir", "target/jmh-fixtures"));
+	}
+
+	/**
+	 * @return data folder holding the 'Bench' workbook with a 'Data' sheet of the given number of rows
+	 */
+	static synchronized File getDataFolder(int rows) throws IOException {
+		File dataFolder = new File(getFixturesFolder(), "data-" + rows);
+		File workbookFile = new File(dataFolder, EXCEL_NAME + ".xlsx");
+		if (!workbookFile.exists()) {
+			dataFolder.mkdirs();
+			File partFile = new File(dataFolder, EXCEL_NAME + ".part");
+			writeWorkbook(partFile, rows);
+			if (!partFile.renameTo(workbookFile)) {
+				throw new IOException("Not able to create " + workbookFile);
+			}
+		}
+		return dataFolder;
+	}
+
+	private static void writeWorkbook(File file, int rows) throws IOException {
+		SXSSFWorkbook workbook = new SXSSFWorkbook(1000);
+		try (OutputStream os = new FileOutputStream(file)) {
+			Sheet sheet = workbook.createSheet(SHEET_NAME);
+			Row header = sheet.createRow(0);
+			String[] headers = { "TestCase", "Run", "Env", "User", "Amount", "Priority" };
+			for (int i = 0; i < headers.length; i++) {
+				header.createCell(i).setCellValue(headers[i]);
+			}
+			for (int r = 1; r <= rows; r++) {
+				Row row = sheet.createRow(r);
+				row.createCell(0).setCellValue("TC_" + r);
+				row.createCell(1).setCellValue(r % 10 == 0 ? "N" : "Y");
+				row.createCell(2).setCellValue(ENVIRONMENTS[r % ENVIRONMENTS.length]);
+				row.createCell(3).setCellValue("user" + (r % 500) + "@example.com");
+				row.createCell(4).setCellValue(r * 1.25);
+				row.createCell(5).setCellValue(r % 3 + 1);
+			}
+			workbook.write(os);
+		} finally {
+			workbook.dispose();
+			workbook.close();
+		}
+	}
+
+	/**
+	 * @return properties folder holding 'bench.properties' with {@link #CONFIG_KEYS} keys 'key.N' of value N
+	 */
+	static synchronized File getPropertiesFolder() throws IOException {
+		File propertiesFolder = new File(getFixturesFolder(), "properties");
+		File propertiesFile = new File(propertiesFolder, "bench.properties");
+		if (!propertiesFile.exists()) {
+			propertiesFolder.mkdirs();
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(propertiesFile), StandardCharsets.ISO_8859_1)) {
+				for (int i = 0; i < CONFIG_KEYS; i++) {
+					writer.write("key." + i + "=" + i + "\n");
+				}
+			}
+		}
+		return propertiesFolder;
+	}
+
+}
@@ -0,0 +1,75 @@
+package org.wm.oneframework.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count, with the GC profiler(allocation rate per operation) and JSON results in
+ * target/jmh-result-&lt;threads&gt;-threads.json. Takes the usual JMH command line options, e.g.
+ * 
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ConfigProvider -p rows=1000,100000
+ * </pre>
+ * 
+ * The thread counts default to 1 and the number of cores, -Dbench.threads=1,4,16 changes them. A -t option runs the
+ * given thread count only. Single threaded benchmarks(@Threads(1), e.g. {@link ExcelLoadBenchmark} which clears the
+ * shared cache before every invocation) only run in the 1 thread pass, the thread count would override their
+ * annotation.
+ */
+public final class BenchmarkRunner {
+
+	private static final Class<?>[] SINGLE_THREADED = { ExcelLoadBenchmark.class, SheetSchemaBenchmark.class };
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		for (int threads : getThreadCounts(commandLineOptions)) {
+			ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions)
+					.threads(threads)
+					.resultFormat(ResultFormatType.JSON)
+					.result("target/jmh-result-" + threads + "-threads.json");
+			if (threads > 1) {
+				for (Class<?> benchmark : SINGLE_THREADED) {
+					options.exclude(benchmark.getName());
+				}
+			}
+			if (!commandLineOptions.getProfilers().stream().anyMatch(profiler -> profiler.getKlass().equals(GCProfiler.class))) {
+				options.addProfiler(GCProfiler.class);
+			}
+			try {
+				new Runner(options.build()).run();
+			} catch (NoBenchmarksException e) {
+				System.out.println("No benchmark selected for " + threads + " threads, only single threaded ones matched.");
+			}
+		}
+	}
+
+	private static List<Integer> getThreadCounts(CommandLineOptions commandLineOptions) {
+		List<Integer> threadCounts = new ArrayList<>();
+		if (commandLineOptions.getThreads().hasValue()) {
+			threadCounts.add(commandLineOptions.getThreads().get());
+			return threadCounts;
+		}
+		String threads = System.getProperty("bench.threads", "1," + Runtime.getRuntime().availableProcessors());
+		for (String count : threads.split(",")) {
+			int threadCount = Integer.parseInt(count.trim());
+			if (!threadCounts.contains(threadCount)) {
+				threadCounts.add(threadCount);
+			}
+		}
+		return threadCounts;
+	}
+
+}
@@ -0,0 +1,60 @@
+package org.wm.oneframework.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wm.oneframework.configprovider.ConfigProvider;
+
+/**
+ * Configuration lookups, which page objects and tests make all the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigProviderBenchmark {
+
+	private String[] keys;
+
+	@Setup
+	public void setup() throws IOException {
+		System.setProperty("config.properties.dir", BenchmarkFixtures.getPropertiesFolder().getAbsolutePath());
+		keys = new String[BenchmarkFixtures.CONFIG_KEYS];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = "key." + i;
+		}
+	}
+
+	private String randomKey() {
+		return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+	}
+
+	@Benchmark
+	public String getAsString() {
+		return ConfigProvider.getAsString(randomKey());
+	}
+
+	@Benchmark
+	public int getAsInt() {
+		return ConfigProvider.getAsInt(randomKey());
+	}
+
+	@Benchmark
+	public String getAsStringFromFile() {
+		return ConfigProvider.getAsString("bench", randomKey());
+	}
+
+}
@@ -0,0 +1,60 @@
+package org.wm.oneframework.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wm.oneframework.excelreader.ReadExcel;
+import org.wm.oneframework.excelreader.SheetCache;
+
+/**
+ * First data provider call on a sheet: parse(streaming or user model) of the workbook, or load of its binary snapshot.
+ * The user model needs a lot of heap for the 1M rows workbook, raise -Xmx or skip it with -p rows=1000,100000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Threads(1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class ExcelLoadBenchmark {
+
+	@Param({ "1000", "100000", "1000000" })
+	public int rows;
+
+	@Param({ "streaming", "workbook", "snapshot" })
+	public String reader;
+
+	@Setup
+	public void setup() throws IOException {
+		System.setProperty("excel.data.dir", BenchmarkFixtures.getDataFolder(rows).getAbsolutePath());
+		System.setProperty("excel.streaming", String.valueOf(!"workbook".equals(reader)));
+		System.setProperty("excel.snapshots", String.valueOf("snapshot".equals(reader)));
+		System.setProperty("excel.snapshot.dir", BenchmarkFixtures.getDataFolder(rows).getAbsolutePath() + "/snapshots");
+		ReadExcel.getData(BenchmarkFixtures.EXCEL_NAME, BenchmarkFixtures.SHEET_NAME);
+	}
+
+	@Setup(Level.Invocation)
+	public void clearCache() {
+		SheetCache.clear();
+	}
+
+	@Benchmark
+	public Object[][] firstGetData() {
+		return ReadExcel.getData(BenchmarkFixtures.EXCEL_NAME, BenchmarkFixtures.SHEET_NAME);
+	}
+
+}
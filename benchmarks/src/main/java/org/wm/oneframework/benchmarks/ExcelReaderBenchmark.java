@@ -0,0 +1,75 @@
+package org.wm.oneframework.benchmarks;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wm.oneframework.annotation.ExcelDetails;
+import org.wm.oneframework.excelreader.ExcelDataProvider;
+import org.wm.oneframework.excelreader.ReadExcel;
+import org.wm.oneframework.excelreader.ReadExcelJmeter;
+
+/**
+ * Data provider calls on an already parsed sheet, i.e. what every data driven test pays per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g", "-Dexcel.snapshots=false" })
+public class ExcelReaderBenchmark {
+
+	@Param({ "1000", "100000", "1000000" })
+	public int rows;
+
+	private Method dataMethod;
+
+	@Setup
+	public void setup() throws IOException, NoSuchMethodException {
+		System.setProperty("excel.data.dir", BenchmarkFixtures.getDataFolder(rows).getAbsolutePath());
+		dataMethod = ExcelReaderBenchmark.class.getMethod("excelDataProvider");
+		ReadExcel.getData(BenchmarkFixtures.EXCEL_NAME, BenchmarkFixtures.SHEET_NAME);
+	}
+
+	@Benchmark
+	public Object[][] getData() {
+		return ReadExcel.getData(BenchmarkFixtures.EXCEL_NAME, BenchmarkFixtures.SHEET_NAME);
+	}
+
+	@Benchmark
+	public List<Map<String, String>> readData() {
+		return ReadExcel.readData(BenchmarkFixtures.EXCEL_NAME, BenchmarkFixtures.SHEET_NAME);
+	}
+
+	@Benchmark
+	@ExcelDetails(excelName = BenchmarkFixtures.EXCEL_NAME, sheetName = BenchmarkFixtures.SHEET_NAME)
+	public Object[][] excelDataProvider() {
+		return new ExcelDataProvider(ExcelReaderBenchmark.class).data(dataMethod);
+	}
+
+	@Benchmark
+	public Object[][] filteredData() {
+		return ReadExcel.getData(BenchmarkFixtures.EXCEL_NAME, BenchmarkFixtures.SHEET_NAME, "Run == 'Y' && Env == 'qa2'");
+	}
+
+	@Benchmark
+	public List<HashMap<String, String>> readExcelJmeter() {
+		return ReadExcelJmeter.readData(BenchmarkFixtures.EXCEL_NAME, BenchmarkFixtures.SHEET_NAME);
+	}
+
+}
@@ -0,0 +1,120 @@
+package org.wm.oneframework.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wm.oneframework.excelreader.SheetSchema;
+
+/**
+ * Turns the rows of an already opened sheet into header keyed maps, the way the user model reader did before the
+ * header was compiled once per sheet(header row and formula evaluator per row) against the {@link SheetSchema} with one
+ * evaluator per sheet. Opening the workbook is left out, {@link ExcelLoadBenchmark} measures the whole load. The
+ * workbook isn't thread safe, so this only runs single threaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SheetSchemaBenchmark {
+
+	@Param({ "50000" })
+	public int rows;
+
+	private final DataFormatter dataFormatter = new DataFormatter();
+	private Workbook workbook;
+	private Sheet sheet;
+
+	@Setup
+	public void setup() throws IOException, InvalidFormatException {
+		File excelFile = new File(BenchmarkFixtures.getDataFolder(rows), BenchmarkFixtures.EXCEL_NAME + ".xlsx");
+		workbook = WorkbookFactory.create(excelFile, null, true);
+		sheet = workbook.getSheet(BenchmarkFixtures.SHEET_NAME);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		workbook.close();
+	}
+
+	@Benchmark
+	public List<Map<String, String>> headerAndEvaluatorPerRow() {
+		List<Map<String, String>> results = new ArrayList<>();
+		for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+			Map<String, String> result = new LinkedHashMap<>();
+			String[] columnHeaders = getDataFromRow(sheet.getRow(0), sheet.getWorkbook().getCreationHelper().createFormulaEvaluator());
+			String[] values = getDataFromRow(sheet.getRow(i), sheet.getWorkbook().getCreationHelper().createFormulaEvaluator());
+			for (int j = 0; j < columnHeaders.length; j++) {
+				result.put(columnHeaders[j], j >= values.length ? "" : values[j]);
+			}
+			results.add(result);
+		}
+		return results;
+	}
+
+	@Benchmark
+	public List<Map<String, String>> schemaAndEvaluatorPerSheet() {
+		FormulaEvaluator formulaEvaluator = workbook.getCreationHelper().createFormulaEvaluator();
+		SheetSchema schema = new SheetSchema(getDataFromRow(sheet.getRow(0), formulaEvaluator));
+		List<Map<String, String>> results = new ArrayList<>();
+		for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+			results.add(schema.putRow(getDataFromRow(sheet.getRow(i), formulaEvaluator), new LinkedHashMap<>()));
+		}
+		return results;
+	}
+
+	private String[] getDataFromRow(Row row, FormulaEvaluator formulaEvaluator) {
+		short numCells = row.getLastCellNum();
+		String[] result = new String[numCells];
+		for (int i = 0; i < numCells; i++) {
+			result[i] = getValueAsString(row.getCell(i), formulaEvaluator);
+		}
+		return result;
+	}
+
+	private String getValueAsString(Cell cell, FormulaEvaluator formulaEvaluator) {
+		if (cell != null) {
+			CellType cellType = cell.getCellTypeEnum();
+			if (cellType.equals(CellType.BOOLEAN)) {
+				return String.valueOf(cell.getBooleanCellValue());
+			} else if (cellType.equals(CellType.NUMERIC)) {
+				return dataFormatter.formatCellValue(cell);
+			} else if (cellType.equals(CellType.STRING)) {
+				return cell.getRichStringCellValue().getString();
+			} else if (cellType.equals(CellType.FORMULA)) {
+				return formulaEvaluator.evaluate(cell).getStringValue();
+			}
+		}
+		return "";
+	}
+
+}
@@ -1,7 +1,6 @@
 package org.wm.oneframewok.seleniumadapter.drivers;
 
 import java.io.File;
-import java.io.IOException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -13,27 +12,27 @@ import org.openqa.selenium.remote.RemoteWebDriver;
 
 public class ChromeDriverManager extends DriverManager {
 
+	private static final String BROWSER_TYPE = "chrome";
 	private ChromeDriverService chService;
 	private static Logger logger = LogManager.getLogger(ChromeDriverManager.class.getName());
 
 	@Override
 	public void startService() {
-		String driverExePath = DriverExecutables.getChromeDriverExe();
 		if (!isServiceInitialized()) {
-			ClassLoader loader = Thread.currentThread().getContextClassLoader();
-			try {
-				File file = new File(loader.getResource(driverExePath).getFile());
-				chService = new ChromeDriverService.Builder().usingDriverExecutable(file).usingAnyFreePort().build();
-				logger.info("Launching the chrome browser using " + driverExePath.split("drivers/")[1]);
-			} catch (NullPointerException e) {
-				logger.warn("Chrome Driver exe not found. Using default exe file from server to launch chorome browser.");
-				chService = ChromeDriverService.createDefaultService();
-			}
-			try {
-				chService.start();
-			} catch (IOException e) {
-				logger.warn("Chrome service couldn't start!!!");
-			}
+			chService = DriverServiceRegistry.acquire(BROWSER_TYPE, this::buildService);
+		}
+	}
+
+	private ChromeDriverService buildService() {
+		String driverExePath = DriverExecutables.getChromeDriverExe();
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		try {
+			File file = new File(loader.getResource(driverExePath).getFile());
+			logger.info("Launching the chrome browser using " + driverExePath.split("drivers/")[1]);
+			return new ChromeDriverService.Builder().usingDriverExecutable(file).usingAnyFreePort().build();
+		} catch (NullPointerException e) {
+			logger.warn("Chrome Driver exe not found. Using default exe file from server to launch chorome browser.");
+			return ChromeDriverService.createDefaultService();
 		}
 	}
 
@@ -41,17 +40,19 @@ public class ChromeDriverManager extends DriverManager {
 		return null != chService;
 	}
 
+	/**
+	 * Quits the browser and releases the shared chrome driver service, which stops with its last release.
+	 */
 	@Override
 	public void stopService() {
-		if (chService != null && isServiceInitialized() && chService.isRunning()) {
-			logger.info("Stopping the chrome driver service.");
+		logger.info("Stopping the chrome driver service.");
+		if (driver != null) {
 			driver.quit();
-			chService.stop();
 			driver = null;
+		}
+		if (isServiceInitialized()) {
+			DriverServiceRegistry.release(BROWSER_TYPE);
 			chService = null;
-		} else {
-			logger.info("Stopping the chrome driver service.");
-			driver.quit();
 		}
 	}
 
@@ -67,7 +68,7 @@ public class ChromeDriverManager extends DriverManager {
 			options.setCapability(CapabilityType.PLATFORM_NAME, getPlatform());
 			driver = new RemoteWebDriver(getServerUrl(), options);
 		} else
-			driver = new ChromeDriver(chService, options);
+			driver = new ChromeDriver(SessionServices.chrome(chService), options);
 	}
 
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 package org.wm.oneframewok.seleniumadapter.drivers;
 
-import org.wm.oneframework.configprovider.ConfigProvider;
+import org.wm.oneframework.config.Config;
 
 public class DriverExecutables {
 
@@ -44,9 +44,9 @@ public class DriverExecutables {
 	protected static void setBrowserExe() {
 
 		String jdkVersion = System.getProperty("sun.arch.data.model");
-		String browserName = ConfigProvider.getAsString("browser");
+		String browserName = Config.BROWSER;
 		if (browserName.equalsIgnoreCase("chrome")) {
-			int browserVersion = ConfigProvider.getAsInt("chrome.version");
+			int browserVersion = Config.CHROME_VERSION;
 			if (browserVersion <= 64) {
 				setChromeDriverExe(35);
 			} else if (browserVersion <= 66) {
@@ -7,7 +7,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.Platform;
 import org.openqa.selenium.WebDriver;
-import org.wm.oneframework.configprovider.ConfigProvider;
+import org.wm.oneframework.config.Config;
 
 public abstract class DriverManager {
 
@@ -34,12 +34,11 @@ public abstract class DriverManager {
 	}
 
 	boolean isSeleniumGridRequired() {
-		String value = ConfigProvider.getAsString("SeleniumGrid");
-		return Boolean.valueOf(value);
+		return Config.SELENIUM_GRID;
 	}
 
 	Platform getPlatform() {
-		String platformValue = ConfigProvider.getAsString("platform");
+		String platformValue = Config.PLATFORM;
 		if (platformValue.equalsIgnoreCase("Windows7") || platformValue.equalsIgnoreCase("windows") || platformValue.equalsIgnoreCase("7")) {
 			return Platform.WINDOWS;
 		} else if (platformValue.equalsIgnoreCase("windows8") || platformValue.equalsIgnoreCase("8")) {
@@ -67,7 +66,7 @@ public abstract class DriverManager {
 		URL url = null;
 		String urlString = "";
 		try {
-			urlString = ConfigProvider.getAsString("hub_url").trim();
+			urlString = Config.HUB_URL.trim();
 			url = toURL(urlString);
 		} catch (NullPointerException e) {
 			logger.warn("hub_url property is not defned.");
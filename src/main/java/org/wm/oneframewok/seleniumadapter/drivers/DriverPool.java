@@ -0,0 +1,334 @@
+package org.wm.oneframewok.seleniumadapter.drivers;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.wm.oneframework.configprovider.ConfigProvider;
+
+/**
+ * Pool of warm browser sessions leased to tests, so a suite of many short tests doesn't pay a browser launch per
+ * thread or test. A returned session is reset(cookies, local and session storage, extra windows closed, about:blank)
+ * before the next lease. Sessions older than the max age or leased more than the max reuse count are quit instead of
+ * being reused, as is a session failing its reset.
+ * <p>
+ * Configuration(properties or system properties): driver.pool.size(sessions, 0 disables the pool),
+ * driver.pool.maxAge(default 30m), driver.pool.maxReuse(default 50) and driver.pool.leaseTimeout(default 5m).
+ */
+public class DriverPool {
+
+	private static final String BLANK_PAGE = "about:blank";
+	private static final long PENDING_POLL_MILLIS = 100;
+	private static final String CLEAR_STORAGE = "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+	private static Logger logger = LogManager.getLogger(DriverPool.class.getName());
+	private static final Map<String, DriverPool> pools = new ConcurrentHashMap<>();
+
+	private final Supplier<DriverManager> managerFactory;
+	private final int size;
+	private final Duration maxAge;
+	private final int maxReuse;
+	private final Duration leaseTimeout;
+	private final Semaphore permits;
+	private final AtomicInteger openSessions = new AtomicInteger();
+	private final AtomicInteger pendingLaunches = new AtomicInteger();
+	private final BlockingDeque<PooledSession> idleSessions = new LinkedBlockingDeque<>();
+	private final Map<WebDriver, PooledSession> leasedSessions = new ConcurrentHashMap<>();
+	private volatile boolean closed;
+
+	public DriverPool(Supplier<DriverManager> managerFactory, int size, Duration maxAge, int maxReuse, Duration leaseTimeout) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Pool size must be at least 1: " + size);
+		}
+		this.managerFactory = managerFactory;
+		this.size = size;
+		this.maxAge = maxAge;
+		this.maxReuse = maxReuse;
+		this.leaseTimeout = leaseTimeout;
+		this.permits = new Semaphore(size, true);
+	}
+
+	/**
+	 * @return true if driver.pool.size is set to 1 or more
+	 */
+	public static boolean isEnabled() {
+		return ConfigProvider.getAsInt("driver.pool.size") > 0;
+	}
+
+	/**
+	 * It will return the pool of the browser, created on first use with the driver.pool.* configuration.
+	 *
+	 * @param browserName
+	 * @return DriverPool
+	 */
+	public static DriverPool forBrowser(String browserName) {
+		return pools.computeIfAbsent(browserName.toLowerCase(), name -> {
+			Duration maxAge = ConfigProvider.getAsDuration("driver.pool.maxAge", ChronoUnit.MINUTES);
+			int maxReuse = ConfigProvider.getAsInt("driver.pool.maxReuse");
+			Duration leaseTimeout = ConfigProvider.getAsDuration("driver.pool.leaseTimeout", ChronoUnit.MINUTES);
+			return new DriverPool(() -> DriverManagerFactory.getManager(browserName), Math.max(1, ConfigProvider.getAsInt("driver.pool.size")), maxAge.isZero() ? Duration.ofMinutes(30) : maxAge, maxReuse > 0 ? maxReuse : 50, leaseTimeout.isZero() ? Duration.ofMinutes(5) : leaseTimeout);
+		});
+	}
+
+	/**
+	 * Closes the pools of all the browsers.
+	 */
+	public static void closeAll() {
+		for (DriverPool pool : pools.values()) {
+			pool.close();
+		}
+		pools.clear();
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Launches sessions until the pool holds the given number of sessions(at most its size), on the calling thread.
+	 *
+	 * @param sessions
+	 */
+	public void prelaunch(int sessions) {
+		int target = Math.min(sessions, size);
+		while (!closed) {
+			if (openSessions.incrementAndGet() > target) {
+				openSessions.decrementAndGet();
+				break;
+			}
+			idleSessions.offerLast(launchOpened());
+		}
+		if (closed) {
+			close();
+		}
+	}
+
+	/**
+	 * Starts launching sessions until the pool holds the given number of sessions(at most its size), each on its own
+	 * task of the executor, and returns at once. Leases made meanwhile wait for these launches instead of launching
+	 * sessions of their own. A failed launch completes the returned future exceptionally, the other launches go on.
+	 *
+	 * @param sessions
+	 * @param executor
+	 *            runs the launches, one task per session
+	 * @return CompletableFuture completed when all the launches are done
+	 */
+	public CompletableFuture<Void> prelaunchAsync(int sessions, Executor executor) {
+		int target = Math.min(sessions, size);
+		List<CompletableFuture<Void>> launches = new ArrayList<>();
+		while (!closed) {
+			if (openSessions.incrementAndGet() > target) {
+				openSessions.decrementAndGet();
+				break;
+			}
+			pendingLaunches.incrementAndGet();
+			launches.add(CompletableFuture.runAsync(this::launchIdle, executor));
+		}
+		return CompletableFuture.allOf(launches.toArray(new CompletableFuture<?>[0]));
+	}
+
+	/**
+	 * Launches a session already counted in {@link #openSessions} and {@link #pendingLaunches} into the idle sessions.
+	 * The session is offered before the pending launch is uncounted, so a lease seeing no pending launch sees the
+	 * session.
+	 */
+	private void launchIdle() {
+		try {
+			PooledSession session = launchOpened();
+			if (closed) {
+				quit(session, "the pool is closed");
+			} else {
+				idleSessions.offerLast(session);
+			}
+		} catch (RuntimeException e) {
+			logger.warn("Not able to prelaunch a browser session: " + e.getMessage());
+			throw e;
+		} finally {
+			pendingLaunches.decrementAndGet();
+		}
+	}
+
+	/**
+	 * It will lease a session to the calling test, waiting for one to be returned when all the sessions are leased, or
+	 * for a prelaunched session still starting. Return it with {@link #release(WebDriver)}.
+	 *
+	 * @return WebDriver
+	 */
+	public WebDriver lease() {
+		if (closed) {
+			throw new IllegalStateException("The driver pool is closed.");
+		}
+		try {
+			if (!permits.tryAcquire(leaseTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+				throw new WebDriverException("No browser session returned to the pool within " + leaseTimeout + ".");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new WebDriverException("Interrupted while waiting for a browser session.", e);
+		}
+		try {
+			PooledSession session = awaitIdleSession();
+			if (session == null) {
+				openSessions.incrementAndGet();
+				session = launchOpened();
+			}
+			session.leases++;
+			leasedSessions.put(session.driver, session);
+			return session.driver;
+		} catch (InterruptedException e) {
+			permits.release();
+			Thread.currentThread().interrupt();
+			throw new WebDriverException("Interrupted while waiting for a prelaunched browser session.", e);
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return an idle session, once the pending launches are done if there is none yet, null if there is none
+	 */
+	private PooledSession awaitIdleSession() throws InterruptedException {
+		PooledSession session = takeIdleSession();
+		while (session == null && pendingLaunches.get() > 0) {
+			session = idleSessions.pollFirst(PENDING_POLL_MILLIS, TimeUnit.MILLISECONDS);
+			if (session != null && session.isExpired()) {
+				quit(session, "it is older than " + maxAge);
+				session = null;
+			}
+		}
+		return session != null ? session : takeIdleSession();
+	}
+
+	private PooledSession takeIdleSession() {
+		PooledSession session;
+		while ((session = idleSessions.pollFirst()) != null) {
+			if (!session.isExpired()) {
+				return session;
+			}
+			quit(session, "it is older than " + maxAge);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns a leased session to the pool. The session is reset for the next test, or quit once expired or worn out.
+	 *
+	 * @param driver
+	 *            leased with {@link #lease()}
+	 */
+	public void release(WebDriver driver) {
+		PooledSession session = leasedSessions.remove(driver);
+		if (session == null) {
+			return;
+		}
+		try {
+			if (closed) {
+				quit(session, "the pool is closed");
+			} else if (session.leases >= maxReuse) {
+				quit(session, "it was leased " + session.leases + " times");
+			} else if (session.isExpired()) {
+				quit(session, "it is older than " + maxAge);
+			} else if (reset(session)) {
+				idleSessions.offerFirst(session);
+			}
+		} finally {
+			permits.release();
+		}
+	}
+
+	private boolean reset(PooledSession session) {
+		WebDriver driver = session.driver;
+		try {
+			Set<String> windowHandles = driver.getWindowHandles();
+			if (windowHandles.size() > 1) {
+				String firstWindow = windowHandles.iterator().next();
+				for (String windowHandle : windowHandles) {
+					if (!windowHandle.equals(firstWindow)) {
+						driver.switchTo().window(windowHandle);
+						driver.close();
+					}
+				}
+				driver.switchTo().window(firstWindow);
+			}
+			driver.manage().deleteAllCookies();
+			if (driver instanceof JavascriptExecutor) {
+				((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE);
+			}
+			driver.get(BLANK_PAGE);
+			return true;
+		} catch (WebDriverException e) {
+			quit(session, "its reset failed: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Launches a session already counted in {@link #openSessions}.
+	 */
+	private PooledSession launchOpened() {
+		try {
+			DriverManager driverManager = managerFactory.get();
+			return new PooledSession(driverManager, driverManager.getDriver());
+		} catch (RuntimeException e) {
+			openSessions.decrementAndGet();
+			throw e;
+		}
+	}
+
+	private void quit(PooledSession session, String reason) {
+		openSessions.decrementAndGet();
+		logger.info("Quitting a pooled browser session, " + reason + ".");
+		try {
+			session.driverManager.stopService();
+		} catch (RuntimeException e) {
+			logger.warn("Not able to quit a pooled browser session: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Quits the idle sessions, leased sessions are quit when released.
+	 */
+	public void close() {
+		closed = true;
+		List<PooledSession> sessions = new ArrayList<>();
+		idleSessions.drainTo(sessions);
+		for (PooledSession session : sessions) {
+			quit(session, "the pool is closed");
+		}
+	}
+
+	private final class PooledSession {
+
+		private final DriverManager driverManager;
+		private final WebDriver driver;
+		private final long createdAt = System.nanoTime();
+		private int leases;
+
+		PooledSession(DriverManager driverManager, WebDriver driver) {
+			this.driverManager = driverManager;
+			this.driver = driver;
+		}
+
+		boolean isExpired() {
+			return System.nanoTime() - createdAt > maxAge.toNanos();
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+package org.wm.oneframewok.seleniumadapter.drivers;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.service.DriverService;
+
+/**
+ * One running driver service(chromedriver, geckodriver, phantomjs) per browser type, shared by all the
+ * {@link DriverManager}s of the JVM: every manager acquires the service when it starts and releases it when it stops,
+ * the service is started by the first acquire and stopped by the last release. Browser sessions are multiplexed on the
+ * service, so parallel threads don't each pay a driver process, a port and its start up. Sessions are created through
+ * {@link SessionServices}, so quitting one doesn't stop the service. Only drivers serving several sessions at once may be
+ * shared, IEDriverServer is not.
+ */
+public final class DriverServiceRegistry {
+
+	private static Logger logger = LogManager.getLogger(DriverServiceRegistry.class.getName());
+	private static final Map<String, SharedService> services = new HashMap<>();
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(DriverServiceRegistry::stopAll, "driver-service-shutdown"));
+	}
+
+	private DriverServiceRegistry() {
+	}
+
+	/**
+	 * It will return the running service of the browser type, built and started if there is none(or it stopped).
+	 * Release it with {@link #release(String)}. A service which fails to start is not kept, the next acquire builds a
+	 * new one.
+	 *
+	 * @param browserType
+	 * @param serviceBuilder
+	 *            builds a service of the browser type, not started yet
+	 * @return DriverService
+	 * @throws WebDriverException
+	 *             if the service couldn't start
+	 */
+	@SuppressWarnings("unchecked")
+	public static synchronized <S extends DriverService> S acquire(String browserType, Supplier<S> serviceBuilder) {
+		SharedService sharedService = services.get(browserType);
+		if (sharedService == null || !sharedService.service.isRunning()) {
+			DriverService service = start(browserType, serviceBuilder.get());
+			if (sharedService == null) {
+				sharedService = new SharedService();
+				services.put(browserType, sharedService);
+			}
+			sharedService.service = service;
+		}
+		sharedService.references++;
+		return (S) sharedService.service;
+	}
+
+	private static DriverService start(String browserType, DriverService service) {
+		try {
+			service.start();
+		} catch (IOException e) {
+			throw new WebDriverException(browserType + " service couldn't start!!!", e);
+		}
+		logger.info("Started the shared " + browserType + " driver service at " + service.getUrl());
+		return service;
+	}
+
+	/**
+	 * Releases the service of the browser type, stopping it when it was the last reference.
+	 *
+	 * @param browserType
+	 */
+	public static synchronized void release(String browserType) {
+		SharedService sharedService = services.get(browserType);
+		if (sharedService == null) {
+			return;
+		}
+		if (--sharedService.references <= 0) {
+			services.remove(browserType);
+			stop(browserType, sharedService.service);
+		}
+	}
+
+	/**
+	 * @param browserType
+	 * @return number of managers holding the service of the browser type
+	 */
+	public static synchronized int getReferences(String browserType) {
+		SharedService sharedService = services.get(browserType);
+		return sharedService == null ? 0 : sharedService.references;
+	}
+
+	private static synchronized void stopAll() {
+		for (Map.Entry<String, SharedService> entry : services.entrySet()) {
+			stop(entry.getKey(), entry.getValue().service);
+		}
+		services.clear();
+	}
+
+	private static void stop(String browserType, DriverService service) {
+		if (service != null && service.isRunning()) {
+			logger.info("Stopping the shared " + browserType + " driver service.");
+			service.stop();
+		}
+	}
+
+	private static final class SharedService {
+
+		private DriverService service;
+		private int references;
+	}
+
+}
@@ -1,7 +1,6 @@
 package org.wm.oneframewok.seleniumadapter.drivers;
 
 import java.io.File;
-import java.io.IOException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -14,28 +13,27 @@ import org.openqa.selenium.remote.RemoteWebDriver;
 
 public class FirefoxDriverManager extends DriverManager {
 
+	private static final String BROWSER_TYPE = "firefox";
 	private GeckoDriverService geckoDriverService;
 	private static Logger logger = LogManager.getLogger(FirefoxDriverManager.class.getName());
 
 	@Override
 	protected void startService() {
-		String driverExePath = DriverExecutables.getGeckoDriverExe();
 		if (!isServiceInitialized()) {
-			ClassLoader loader = Thread.currentThread().getContextClassLoader();
-			try {
-				File file = new File(loader.getResource(driverExePath).getFile());
-				geckoDriverService = new GeckoDriverService.Builder().usingDriverExecutable(file).usingAnyFreePort().build();
-				logger.info("Launching the firefox browser using " + driverExePath.split("drivers/")[1]);
+			geckoDriverService = DriverServiceRegistry.acquire(BROWSER_TYPE, this::buildService);
+		}
+	}
 
-			} catch (NullPointerException e) {
-				logger.warn("Gecko Driver exe not found. Using default exe file from server.");
-				geckoDriverService = GeckoDriverService.createDefaultService();
-			}
-			try {
-				geckoDriverService.start();
-			} catch (IOException e) {
-				logger.warn("firefox service couldn't start!!!");
-			}
+	private GeckoDriverService buildService() {
+		String driverExePath = DriverExecutables.getGeckoDriverExe();
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		try {
+			File file = new File(loader.getResource(driverExePath).getFile());
+			logger.info("Launching the firefox browser using " + driverExePath.split("drivers/")[1]);
+			return new GeckoDriverService.Builder().usingDriverExecutable(file).usingAnyFreePort().build();
+		} catch (NullPointerException e) {
+			logger.warn("Gecko Driver exe not found. Using default exe file from server.");
+			return GeckoDriverService.createDefaultService();
 		}
 	}
 
@@ -43,19 +41,20 @@ public class FirefoxDriverManager extends DriverManager {
 		return null != geckoDriverService;
 	}
 
+	/**
+	 * Quits the browser and releases the shared gecko driver service, which stops with its last release.
+	 */
 	@Override
 	public void stopService() {
-		if (geckoDriverService != null && isServiceInitialized() && geckoDriverService.isRunning()) {
-			logger.info("Stopping the gecko driver service.");
+		logger.info("Stopping the gecko driver service.");
+		if (driver != null) {
 			driver.quit();
-			geckoDriverService.stop();
 			driver = null;
+		}
+		if (isServiceInitialized()) {
+			DriverServiceRegistry.release(BROWSER_TYPE);
 			geckoDriverService = null;
-		} else {
-			logger.info("Stopping the gecko driver service.");
-			driver.quit();
 		}
-
 	}
 
 	@Override
@@ -65,7 +64,7 @@ public class FirefoxDriverManager extends DriverManager {
 		if (isSeleniumGridRequired())
 			driver = new RemoteWebDriver(getServerUrl(), options);
 		else
-			driver = new FirefoxDriver(geckoDriverService, options);
+			driver = new FirefoxDriver(SessionServices.gecko(geckoDriverService), options);
 	}
 
 }
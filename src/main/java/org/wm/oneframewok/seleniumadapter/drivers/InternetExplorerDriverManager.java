@@ -5,12 +5,17 @@ import java.io.IOException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.ie.InternetExplorerDriver;
 import org.openqa.selenium.ie.InternetExplorerDriverService;
 import org.openqa.selenium.ie.InternetExplorerOptions;
 import org.openqa.selenium.remote.CapabilityType;
 import org.openqa.selenium.remote.RemoteWebDriver;
 
+/**
+ * IEDriverServer only drives one session at a time, so unlike the other browsers every manager starts an
+ * IEDriverServer of its own instead of sharing one through the {@link DriverServiceRegistry}.
+ */
 public class InternetExplorerDriverManager extends DriverManager {
 
 	private InternetExplorerDriverService ieDriverService;
@@ -18,18 +23,18 @@ public class InternetExplorerDriverManager extends DriverManager {
 
 	@Override
 	public void startService() {
-		String driverExePath = DriverExecutables.getIeDriverExe();
 		if (!isServiceInitialized()) {
+			String driverExePath = DriverExecutables.getIeDriverExe();
 			ClassLoader loader = Thread.currentThread().getContextClassLoader();
 			File file = new File(loader.getResource(driverExePath).getFile());
-			ieDriverService = new InternetExplorerDriverService.Builder().usingDriverExecutable(file).usingAnyFreePort().build();
+			InternetExplorerDriverService service = new InternetExplorerDriverService.Builder().usingDriverExecutable(file).usingAnyFreePort().build();
 			logger.info("Launching the Internet Explorer browser using " + driverExePath.split("drivers/")[1]);
-
 			try {
-				ieDriverService.start();
+				service.start();
 			} catch (IOException e) {
-				logger.warn("IE Service couldn't start!!!");
+				throw new WebDriverException("IE Service couldn't start!!!", e);
 			}
+			ieDriverService = service;
 		}
 	}
 
@@ -37,17 +42,19 @@ public class InternetExplorerDriverManager extends DriverManager {
 		return null != ieDriverService;
 	}
 
+	/**
+	 * Quits the browser and stops the ie driver service of this manager.
+	 */
 	@Override
 	public void stopService() {
-		if (ieDriverService != null && isServiceInitialized() && ieDriverService.isRunning()) {
-			logger.info("Stopping the ie driver service.");
+		logger.info("Stopping the ie driver service.");
+		if (driver != null) {
 			driver.quit();
-			ieDriverService.stop();
 			driver = null;
+		}
+		if (isServiceInitialized()) {
+			ieDriverService.stop();
 			ieDriverService = null;
-		} else {
-			logger.info("Stopping the ie driver service.");
-			driver.quit();
 		}
 	}
 
@@ -1,50 +1,52 @@
 package org.wm.oneframewok.seleniumadapter.drivers;
 
 import java.io.File;
-import java.io.IOException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.phantomjs.PhantomJSDriver;
 import org.openqa.selenium.phantomjs.PhantomJSDriverService;
 import org.openqa.selenium.remote.DesiredCapabilities;
 import org.openqa.selenium.remote.RemoteWebDriver;
 
 public class PhantomJSDriverManager extends DriverManager {
 
+	private static final String BROWSER_TYPE = "phantomjs";
 	private PhantomJSDriverService phantomJSDriverService;
 	private static Logger logger = LogManager.getLogger(PhantomJSDriverManager.class.getName());
 
 	@Override
 	public void startService() {
-		String driverExePath = DriverExecutables.getPhantomjsExe();
 		if (!isServiceInitialized()) {
-			ClassLoader loader = Thread.currentThread().getContextClassLoader();
-			File file = new File(loader.getResource(driverExePath).getFile());
-			phantomJSDriverService = new PhantomJSDriverService.Builder().usingPhantomJSExecutable(file).usingAnyFreePort().build();
-			logger.info("Launching using " + driverExePath.split("drivers/")[1]);
-			try {
-				phantomJSDriverService.start();
-			} catch (IOException e) {
-				logger.warn("PhantomJS service couldn't start!!!");
-			}
+			phantomJSDriverService = DriverServiceRegistry.acquire(BROWSER_TYPE, this::buildService);
 		}
 	}
 
+	private PhantomJSDriverService buildService() {
+		String driverExePath = DriverExecutables.getPhantomjsExe();
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		File file = new File(loader.getResource(driverExePath).getFile());
+		logger.info("Launching using " + driverExePath.split("drivers/")[1]);
+		return new PhantomJSDriverService.Builder().usingPhantomJSExecutable(file).usingAnyFreePort().build();
+	}
+
 	private boolean isServiceInitialized() {
 		return null != phantomJSDriverService;
 	}
 
+	/**
+	 * Quits the browser and releases the shared phantomJS driver service, which stops with its last release.
+	 */
 	@Override
 	public void stopService() {
-		if (phantomJSDriverService != null && isServiceInitialized() && phantomJSDriverService.isRunning()) {
-			logger.info("Stopping the phantomJS driver service.");
+		logger.info("Stopping the phantomJS driver service.");
+		if (driver != null) {
 			driver.quit();
-			phantomJSDriverService.stop();
 			driver = null;
+		}
+		if (isServiceInitialized()) {
+			DriverServiceRegistry.release(BROWSER_TYPE);
 			phantomJSDriverService = null;
-		} else {
-			logger.info("Stopping the phantomJS driver service.");
-			driver.quit();
 		}
 	}
 
@@ -55,7 +57,10 @@ public class PhantomJSDriverManager extends DriverManager {
 	@Deprecated
 	protected void createDriver() {
 		DesiredCapabilities capabilities = DesiredCapabilities.phantomjs();
-		driver = new RemoteWebDriver(getServerUrl(), capabilities);
+		if (isSeleniumGridRequired())
+			driver = new RemoteWebDriver(getServerUrl(), capabilities);
+		else
+			driver = new PhantomJSDriver(SessionServices.phantomJS(phantomJSDriverService), capabilities);
 
 	}
 
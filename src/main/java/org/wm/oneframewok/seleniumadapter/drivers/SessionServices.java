@@ -0,0 +1,112 @@
+package org.wm.oneframewok.seleniumadapter.drivers;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.phantomjs.PhantomJSDriverService;
+import org.openqa.selenium.remote.CommandInfo;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.service.DriverService;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Session handles on the services of the {@link DriverServiceRegistry}, to build the typed drivers(ChromeDriver,
+ * FirefoxDriver, PhantomJSDriver) on a shared service. The executor of a typed driver starts its service with the new
+ * session and stops it with quit, which would kill the sessions of the other threads. A handle points the driver at the
+ * URL of the shared service and leaves starting and stopping to the registry.
+ */
+public final class SessionServices {
+
+	private SessionServices() {
+	}
+
+	/**
+	 * @param sharedService
+	 *            running service acquired from the {@link DriverServiceRegistry}
+	 * @return service to give to new ChromeDriver(service, options)
+	 */
+	public static ChromeDriverService chrome(ChromeDriverService sharedService) {
+		try {
+			return new ChromeSession(sharedService);
+		} catch (IOException e) {
+			throw new WebDriverException(e);
+		}
+	}
+
+	/**
+	 * @param sharedService
+	 *            running service acquired from the {@link DriverServiceRegistry}
+	 * @return service to give to new FirefoxDriver(service, options)
+	 */
+	public static GeckoDriverService gecko(GeckoDriverService sharedService) {
+		try {
+			return new GeckoSession(sharedService);
+		} catch (IOException e) {
+			throw new WebDriverException(e);
+		}
+	}
+
+	/**
+	 * PhantomJSDriverService can't be extended, PhantomJSDriver takes a plain executor on the URL of the service instead.
+	 *
+	 * @param sharedService
+	 *            running service acquired from the {@link DriverServiceRegistry}
+	 * @return executor to give to new PhantomJSDriver(executor, capabilities)
+	 */
+	public static HttpCommandExecutor phantomJS(PhantomJSDriverService sharedService) {
+		return new HttpCommandExecutor(ImmutableMap.of("executePhantomScript", new CommandInfo("/session/:sessionId/phantom/execute", HttpMethod.POST)), sharedService.getUrl());
+	}
+
+	private static final class ChromeSession extends ChromeDriverService {
+
+		private final DriverService sharedService;
+
+		ChromeSession(DriverService sharedService) throws IOException {
+			super(new File("chromedriver"), sharedService.getUrl().getPort(), ImmutableList.of(), ImmutableMap.of());
+			this.sharedService = sharedService;
+		}
+
+		@Override
+		public void start() {
+		}
+
+		@Override
+		public void stop() {
+		}
+
+		@Override
+		public boolean isRunning() {
+			return sharedService.isRunning();
+		}
+	}
+
+	private static final class GeckoSession extends GeckoDriverService {
+
+		private final DriverService sharedService;
+
+		GeckoSession(DriverService sharedService) throws IOException {
+			super(new File("geckodriver"), sharedService.getUrl().getPort(), ImmutableList.of(), ImmutableMap.of());
+			this.sharedService = sharedService;
+		}
+
+		@Override
+		public void start() {
+		}
+
+		@Override
+		public void stop() {
+		}
+
+		@Override
+		public boolean isRunning() {
+			return sharedService.isRunning();
+		}
+	}
+
+}
@@ -15,4 +15,10 @@ public @interface ExcelDetails {
 	public String excelName() default "";
 
 	public String sheetName() default "Sheet1";
+
+	/**
+	 * Only the rows matching this expression are handed to the test, e.g. "Run == 'Y' && Env == 'qa2'". See
+	 * {@link org.wm.oneframework.excelreader.RowFilter} for the syntax. Empty(default) hands every row.
+	 */
+	public String filter() default "";
 }
@@ -0,0 +1,174 @@
+package org.wm.oneframework.configprovider;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Build step which generates a class with one typed constant per key of the properties files, e.g.
+ *
+ * <pre>
+ * public static final int TIME_OUT_DURATION = ConfigProvider.getAsInt("TimeOutDuration");
+ * </pre>
+ *
+ * so hot paths read a static field instead of looking the key up. The type is inferred from the value(int, long,
+ * boolean, Duration or String). Durations are numbers with a unit suffix(500ms, 30s, 2m), read in the unit of the
+ * suffix when another environment gives a plain number. Only the keys are generated, the values are read through
+ * {@link ConfigProvider} when the class is initialized, i.e. from the environment active then, and don't follow later
+ * reloads.
+ * <p>
+ * The build compiles this class on its own and runs it in the generate-sources phase, before the main sources which use
+ * the constants are compiled, so it must not depend on any other class of the project.
+ * <p>
+ * Arguments: properties folder(default src/test/resources/properties), source folder(default
+ * target/generated-sources/config-constants) and class name(default org.wm.oneframework.config.Config).
+ */
+public final class ConfigConstantsGenerator {
+
+	private static final Pattern INT_PATTERN = Pattern.compile("-?\\d{1,9}");
+	private static final Pattern LONG_PATTERN = Pattern.compile("-?\\d{1,18}");
+	private static final Pattern DURATION_PATTERN = Pattern.compile("\\d{1,18}\\s*(ms|s|m|h|d)", Pattern.CASE_INSENSITIVE);
+	private static final String CONFIG_PROVIDER = ConfigConstantsGenerator.class.getPackage().getName() + ".ConfigProvider";
+	private static Logger logger = Logger.getLogger(ConfigConstantsGenerator.class.getName());
+
+	private ConfigConstantsGenerator() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		File propertiesFolder = new File(args.length > 0 ? args[0] : "src/test/resources/properties");
+		File sourceFolder = new File(args.length > 1 ? args[1] : "target/generated-sources/config-constants");
+		String className = args.length > 2 ? args[2] : "org.wm.oneframework.config.Config";
+		File[] propertiesFiles = propertiesFolder.listFiles((folder, name) -> name.endsWith(".properties"));
+		if (propertiesFiles == null) {
+			logger.warning("Properties folder '" + propertiesFolder + "' not found, no constants generated.");
+			return;
+		}
+		Arrays.sort(propertiesFiles);
+		Map<String, String> values = new TreeMap<>();
+		Map<String, String> sources = new TreeMap<>();
+		for (File propertiesFile : propertiesFiles) {
+			Properties properties = new Properties();
+			try (InputStream is = new FileInputStream(propertiesFile)) {
+				properties.load(is);
+			}
+			for (String key : properties.stringPropertyNames()) {
+				values.put(key, properties.getProperty(key).trim());
+				sources.put(key, propertiesFile.getName());
+			}
+		}
+		File sourceFile = write(sourceFolder, className, values, sources);
+		logger.info("Generated " + values.size() + " configuration constants in " + sourceFile);
+	}
+
+	private static File write(File sourceFolder, String className, Map<String, String> values, Map<String, String> sources) throws IOException {
+		int packageEnd = className.lastIndexOf('.');
+		String packageName = packageEnd < 0 ? "" : className.substring(0, packageEnd);
+		String simpleName = className.substring(packageEnd + 1);
+		File sourceFile = new File(sourceFolder, className.replace('.', File.separatorChar) + ".java");
+		sourceFile.getParentFile().mkdirs();
+		Set<String> fieldNames = new HashSet<>();
+		try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(sourceFile.toPath(), StandardCharsets.UTF_8))) {
+			if (!packageName.isEmpty()) {
+				writer.println("package " + packageName + ";");
+				writer.println();
+			}
+			writer.println("import java.time.Duration;");
+			writer.println("import java.time.temporal.ChronoUnit;");
+			writer.println();
+			writer.println("import " + CONFIG_PROVIDER + ";");
+			writer.println();
+			writer.println("/**");
+			writer.println(" * Configuration constants generated by " + ConfigConstantsGenerator.class.getSimpleName() + ", do not edit.");
+			writer.println(" */");
+			writer.println("public final class " + simpleName + " {");
+			for (Map.Entry<String, String> entry : values.entrySet()) {
+				String key = entry.getKey();
+				String fieldName = toFieldName(key);
+				if (!fieldNames.add(fieldName)) {
+					logger.warning("Skipped '" + key + "', its constant " + fieldName + " is already generated for another key.");
+					continue;
+				}
+				writer.println();
+				writer.println("	/** " + key + " from " + sources.get(key) + " */");
+				writer.println("	public static final " + getFieldDeclaration(key, entry.getValue(), fieldName) + ";");
+			}
+			writer.println();
+			writer.println("	private " + simpleName + "() {");
+			writer.println("	}");
+			writer.println();
+			writer.println("}");
+		}
+		return sourceFile;
+	}
+
+	private static String getFieldDeclaration(String key, String value, String fieldName) {
+		String keyLiteral = "\"" + key.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+		if (INT_PATTERN.matcher(value).matches()) {
+			return "int " + fieldName + " = ConfigProvider.getAsInt(" + keyLiteral + ")";
+		}
+		if (LONG_PATTERN.matcher(value).matches()) {
+			return "long " + fieldName + " = ConfigProvider.getAsLong(" + keyLiteral + ")";
+		}
+		Matcher durationMatcher = DURATION_PATTERN.matcher(value);
+		if (durationMatcher.matches()) {
+			return "Duration " + fieldName + " = ConfigProvider.getAsDuration(" + keyLiteral + ", ChronoUnit." + getUnit(durationMatcher.group(1)) + ")";
+		}
+		if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+			return "boolean " + fieldName + " = ConfigProvider.getAsBoolean(" + keyLiteral + ")";
+		}
+		return "String " + fieldName + " = ConfigProvider.getAsString(" + keyLiteral + ")";
+	}
+
+	private static String getUnit(String suffix) {
+		switch (suffix.toLowerCase(Locale.ROOT)) {
+		case "ms":
+			return "MILLIS";
+		case "s":
+			return "SECONDS";
+		case "m":
+			return "MINUTES";
+		case "h":
+			return "HOURS";
+		default:
+			return "DAYS";
+		}
+	}
+
+	/**
+	 * TimeOutDuration -&gt; TIME_OUT_DURATION, mongodb.host -&gt; MONGODB_HOST
+	 */
+	private static String toFieldName(String key) {
+		StringBuilder fieldName = new StringBuilder();
+		char previous = '_';
+		for (char c : key.toCharArray()) {
+			if (!Character.isJavaIdentifierPart(c) || c == '$') {
+				c = '_';
+			} else if (Character.isUpperCase(c) && Character.isLowerCase(previous)) {
+				fieldName.append('_');
+			}
+			if (c != '_' || previous != '_') {
+				fieldName.append(Character.toUpperCase(c));
+			}
+			previous = c;
+		}
+		if (fieldName.length() == 0 || !Character.isJavaIdentifierStart(fieldName.charAt(0))) {
+			fieldName.insert(0, '_');
+		}
+		return fieldName.toString();
+	}
+
+}
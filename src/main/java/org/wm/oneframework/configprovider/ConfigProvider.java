@@ -5,9 +5,21 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
+import java.time.Duration;
+import java.time.temporal.TemporalUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -15,82 +27,212 @@ import org.wm.oneframework.configprovider.exceptions.PropertyFileNotFoundExcepti
 
 public final class ConfigProvider {
 
-	private static Properties props;
-	private static Map<String, Properties> configMap = new HashMap<>();
+	private static final String ENVIRONMENT_PROPERTY = "config.environment";
+	private static volatile ConfigSnapshot snapshot = ConfigSnapshot.EMPTY.withEnvironment(System.getProperty(ENVIRONMENT_PROPERTY));
 	private static final String PROPERTIES_EXT = ".properties";
 	private static final String PROPERTIES_FOLDER = "./properties";
+	private static final String PROPERTIES_DIR_PROPERTY = "config.properties.dir";
+	private static final Pattern DURATION_PATTERN = Pattern.compile("(\\d+)\\s*([a-zA-Z]*)");
+	private static final Object MISSING = new Object();
 	private static Logger logger = LogManager.getLogger(ConfigProvider.class.getName());
 
 	private ConfigProvider() {
 	}
 
 	/**
-	 * static method to get the instance of the ConfigProvider
+	 * static method to get the properties of the given file, loaded on first use. Reads only dereference the current
+	 * {@link ConfigSnapshot}, loading a file publishes a new snapshot.
 	 * 
 	 * @param propertyFileName
-	 * @return ConfigProvider
-	 * @throws FileNotFoundException
-	 */
-	private static Properties getInstance(String propertyFileName) {
-		Properties props = null;
-		if (configMap.size() == 0) {
-			props = loadProperties(propertyFileName);
-			configMap.put(propertyFileName, props);
-			return props;
-		}
-		for (Map.Entry<String, Properties> entry : configMap.entrySet()) {
-			if (entry.getKey().equals(propertyFileName)) {
-				return entry.getValue();
+	 * @return Map
+	 */
+	private static Map<String, String> getInstance(String propertyFileName) {
+		Map<String, String> values = snapshot.files.get(propertyFileName);
+		if (values == null) {
+			synchronized (ConfigProvider.class) {
+				values = snapshot.files.get(propertyFileName);
+				if (values == null) {
+					snapshot = snapshot.withFile(propertyFileName, loadProperties(propertyFileName));
+					values = snapshot.files.get(propertyFileName);
+				}
 			}
 		}
-		props = loadProperties(propertyFileName);
-		configMap.put(propertyFileName, props);
-		return props;
+		return values;
 	}
 
 	/**
-	 * static method to get the instance of the ConfigProvider
+	 * It will return the value of the key in the given environment and properties file. The layers above the defaults
+	 * are looked up in a flattened table({@link #getTable(String, String)}), the defaults through the index of the
+	 * properties folder, which loads only the file defining the key. With an environment, a system property of the key
+	 * overrides the files of the environment; it is read on every lookup, so later System.setProperty calls are seen.
 	 * 
-	 * @return ConfigProvider
-	 * @throws FileNotFoundException
+	 * @param environment
+	 *            null for the defaults only
+	 * @param propertyFile
+	 *            null for all the files of the environment
+	 * @param key
+	 * @return value
 	 */
-	private static Properties getInstance() {
-		if (props == null) {
-			return loadProperties();
-		} else {
-			return props;
+	private static String lookup(String environment, String propertyFile, String key) {
+		Map<String, String> table = getTable(environment, propertyFile);
+		String value = getSystemProperty(environment, key);
+		if (value == null) {
+			value = table.get(key);
+		}
+		if (value == null) {
+			String fileName = getIndex().getFile(key);
+			if (fileName != null) {
+				value = getInstance(fileName).get(key);
+			}
 		}
+		return value;
 	}
 
-	private static Properties loadProperties() {
-		Properties props = new Properties();
-		File propertiesFiles = null;
-		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+	/**
+	 * It will return the system property of the key when an environment is given and the key was not set with
+	 * {@link #setProperty(String, String)}, null otherwise.
+	 */
+	private static String getSystemProperty(String environment, String key) {
+		if (environment == null || snapshot.overrides.containsKey(key)) {
+			return null;
+		}
+		return System.getProperty(key);
+	}
 
-		try {
-			propertiesFiles = new File(loader.getResource(PROPERTIES_FOLDER).getFile());
-		} catch (NullPointerException e) {
-			logger.error(e.getMessage());
+	private static PropertiesIndex getIndex() {
+		PropertiesIndex index = snapshot.index;
+		if (index == null) {
+			synchronized (ConfigProvider.class) {
+				if (snapshot.index == null) {
+					snapshot = snapshot.withIndex(PropertiesIndex.build(getPropertiesFolder()));
+				}
+				index = snapshot.index;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * It will return the flattened lookup table of the layers above the defaults for an environment and properties
+	 * file, built on first use and kept until a reload. Layers, each one overriding the previous ones:
+	 * <ol>
+	 * <li>defaults: the files of the properties folder, not in the table(see {@link #lookup(String, String, String)})</li>
+	 * <li>environment: all the files of the properties/&lt;environment&gt; folder</li>
+	 * <li>file: properties/&lt;environment&gt;/&lt;propertyFile&gt;.properties</li>
+	 * <li>system properties, only with an environment and read live, not in the table(see
+	 * {@link #lookup(String, String, String)})</li>
+	 * <li>values set with {@link #setProperty(String, String)}</li>
+	 * </ol>
+	 * 
+	 * @param environment
+	 *            null for the defaults only
+	 * @param propertyFile
+	 *            null for all the files of the environment
+	 * @return Map
+	 */
+	private static Map<String, String> getTable(String environment, String propertyFile) {
+		String tableKey = ConfigSnapshot.tableKey(environment, propertyFile);
+		Map<String, String> table = snapshot.tables.get(tableKey);
+		if (table == null) {
+			synchronized (ConfigProvider.class) {
+				table = snapshot.tables.get(tableKey);
+				if (table == null) {
+					snapshot = snapshot.withTable(tableKey, buildTable(snapshot, environment, propertyFile));
+					table = snapshot.tables.get(tableKey);
+				}
+			}
+		}
+		return table;
+	}
+
+	private static Map<String, String> buildTable(ConfigSnapshot current, String environment, String propertyFile) {
+		Map<String, String> table = new HashMap<>();
+		if (environment != null) {
+			File environmentFolder = new File(getPropertiesFolder(), environment);
+			if (!environmentFolder.isDirectory()) {
+				throw new PropertyFileNotFoundException("'" + environment + "' environment folder not found. Please verify mentioned folder should be present under 'properties' folder in src/test/resources.");
+			}
+			table.putAll(ConfigSnapshot.toMap(loadFolder(environmentFolder)));
+			if (propertyFile != null) {
+				table.putAll(ConfigSnapshot.toMap(loadProperties(environment + File.separator + propertyFile)));
+			}
+		}
+		table.putAll(current.overrides);
+		return table;
+	}
+
+	/**
+	 * It will return the active environment, initially the one given with -Dconfig.environment, null if none.
+	 * 
+	 * @return String
+	 */
+	public static String getEnvironment() {
+		return snapshot.environment;
+	}
+
+	/**
+	 * Switches the environment {@link #getAsString(String)} and the other key only lookups read from, without restarting
+	 * the JVM. Tables of environments already used are kept, so switching back and forth doesn't load files again.
+	 * 
+	 * @param environment
+	 *            name of a sub folder of the properties folder, null to read the defaults only
+	 */
+	public static void setEnvironment(String environment) {
+		synchronized (ConfigProvider.class) {
+			snapshot = snapshot.withEnvironment(environment);
+		}
+		logger.info("Configuration environment: " + environment);
+	}
+
+	/**
+	 * It will return the keys defined by several files of the properties folder, with the files in the order they are
+	 * applied(the last one wins). Collisions are also logged when the properties folder is indexed.
+	 * 
+	 * @return Map
+	 */
+	public static Map<String, List<String>> getKeyCollisions() {
+		return getIndex().getCollisions();
+	}
+
+	/**
+	 * It will return the folder the properties files are loaded from: the 'properties' folder of the classpath, unless
+	 * overridden with -Dconfig.properties.dir(e.g. src/test/resources/properties, to pick up edits while running).
+	 * 
+	 * @return File
+	 */
+	public static File getPropertiesFolder() {
+		String propertiesDir = System.getProperty(PROPERTIES_DIR_PROPERTY);
+		if (propertiesDir != null) {
+			return new File(propertiesDir);
+		}
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		URL propertiesFolder = loader.getResource(PROPERTIES_FOLDER);
+		if (propertiesFolder == null) {
 			throw new PropertyFileNotFoundException("No properties file found inside 'properties' folder under src/test/resources. Please add all your properties files under mentioned folder(create folder if doesn't exist).");
 		}
-		try {
-			File[] listOfFiles = propertiesFiles.listFiles();
+		return new File(propertiesFolder.getFile());
+	}
+
+	private static Properties loadFolder(File propertiesFiles) {
+		Properties props = new Properties();
+		File[] listOfFiles = propertiesFiles.listFiles();
+		if (listOfFiles != null) {
 			for (File file : listOfFiles) {
 				if (file.isFile() && file.getName().endsWith(PROPERTIES_EXT)) {
-					props.load(new FileInputStream(propertiesFiles + File.separator + file.getName()));
+					try (InputStream is = new FileInputStream(file)) {
+						props.load(is);
+					} catch (IOException e) {
+						logger.warn("Not able to load property!!");
+					}
 				}
 			}
-		} catch (IOException e) {
-			logger.warn("Not able to load property!!");
 		}
 		return props;
 	}
 
 	private static Properties loadProperties(String propertyFile) {
 		Properties props = new Properties();
-		ClassLoader loader = Thread.currentThread().getContextClassLoader();
-		InputStream is = loader.getResourceAsStream(PROPERTIES_FOLDER + File.separator + propertyFile + PROPERTIES_EXT);
-		try {
+		try (InputStream is = openPropertiesFile(propertyFile + PROPERTIES_EXT)) {
 			props.load(is);
 		} catch (NullPointerException e) {
 			logger.error(e.getMessage());
@@ -101,33 +243,188 @@ public final class ConfigProvider {
 		return props;
 	}
 
+	private static InputStream openPropertiesFile(String relativePath) throws FileNotFoundException {
+		String propertiesDir = System.getProperty(PROPERTIES_DIR_PROPERTY);
+		if (propertiesDir != null) {
+			File propertiesFile = new File(propertiesDir, relativePath);
+			return propertiesFile.isFile() ? new FileInputStream(propertiesFile) : null;
+		}
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		return loader.getResourceAsStream(PROPERTIES_FOLDER + File.separator + relativePath);
+	}
+
+	/**
+	 * Reloads the properties after the given properties file changed. The new properties are completely loaded before
+	 * they replace the current ones(copy on write), so readers keep reading the previous values until then and never see
+	 * a partly loaded file. Values set with {@link #setProperty(String, String)} are kept.
+	 * 
+	 * @param changedFile
+	 */
+	public static void reload(File changedFile) {
+		String fileName = changedFile.getName();
+		if (!fileName.endsWith(PROPERTIES_EXT)) {
+			return;
+		}
+		String propertyFile = fileName.substring(0, fileName.length() - PROPERTIES_EXT.length());
+		synchronized (ConfigProvider.class) {
+			ConfigSnapshot next = snapshot.withoutTables();
+			if (next.index != null) {
+				next = next.withIndex(next.index.withFile(getPropertiesFolder(), changedFile));
+			}
+			if (next.files.containsKey(propertyFile)) {
+				try {
+					next = next.withFile(propertyFile, loadProperties(propertyFile));
+				} catch (PropertyFileNotFoundException e) {
+					next = next.withoutFile(propertyFile);
+				}
+			}
+			snapshot = next;
+		}
+		logger.info("Reloaded properties from " + fileName);
+	}
+
 	/**
-	 * This method will load all the properties file from properties folder in src/test/resources. It takes key as the parameter and will return its value, if found. Otherwise it will return null. Don't keep same keys in different properties file. In that scenario, use {@link getAsString(String fileName, String key)}
+	 * This method will load all the properties file from properties folder in src/test/resources. It takes key as the parameter and will return its value, if found. Otherwise it will return null. Don't keep same keys in different properties file. In that scenario, use {@link getAsString(String fileName, String key)}. With an active environment({@link #setEnvironment(String)}), the files of its folder and the system properties override these values. Without an environment, system properties are not read.
 	 * 
 	 * @param key
 	 * @return value
 	 */
 	public static String getAsString(String key) {
-		String value = getInstance().getProperty(key);
-		logger.debug("Reading configuration from properties file. " + key + ":" + value);
+		long start = ConfigStats.start();
+		String value = lookup(snapshot.environment, null, key);
+		ConfigStats.record(key, value != null, start);
 		return value;
 	}
 
 	/**
-	 * It will return value in int.
+	 * It will return value in int, 0 if the key is missing. The value is parsed once and cached until the configuration
+	 * changes, like the values of all the typed getters. Values coming from a system property are parsed on every call.
 	 * 
 	 * @param key
 	 * @return int
 	 */
 	public static int getAsInt(String key) {
-		String value = getInstance().getProperty(key);
-		if (value != null) {
-			int intValue = Integer.parseInt(value);
-			logger.debug("Reading configuration from properties file. " + key + ":" + value);
-			return intValue;
-		} else {
-			return 0;
+		return getTyped(key, Integer.class, value -> Integer.valueOf(value.trim()), 0);
+	}
+
+	/**
+	 * It will return value in long, 0 if the key is missing.
+	 * 
+	 * @param key
+	 * @return long
+	 */
+	public static long getAsLong(String key) {
+		return getTyped(key, Long.class, value -> Long.valueOf(value.trim()), 0L);
+	}
+
+	/**
+	 * It will return value in boolean('true' ignoring case), false if the key is missing.
+	 * 
+	 * @param key
+	 * @return boolean
+	 */
+	public static boolean getAsBoolean(String key) {
+		return getTyped(key, Boolean.class, value -> Boolean.valueOf(value.trim()), false);
+	}
+
+	/**
+	 * It will return value as a Duration, {@link Duration#ZERO} if the key is missing. Values are plain numbers in the
+	 * given unit, numbers with a unit suffix(ms, s, m, h, d, e.g. '500ms', '30s') or ISO-8601 durations(e.g. 'PT30S').
+	 * 
+	 * @param key
+	 * @param unit
+	 *            unit of plain numbers, e.g. ChronoUnit.SECONDS
+	 * @return Duration
+	 */
+	public static Duration getAsDuration(String key, TemporalUnit unit) {
+		return getTyped(key, unit, value -> parseDuration(key, value.trim(), unit), Duration.ZERO);
+	}
+
+	/**
+	 * It will return value as a constant of the given enum, matched ignoring case, null if the key is missing.
+	 * 
+	 * @param key
+	 * @param enumType
+	 * @return enum constant
+	 */
+	public static <E extends Enum<E>> E getAsEnum(String key, Class<E> enumType) {
+		return getTyped(key, enumType, value -> parseEnum(key, value.trim(), enumType), null);
+	}
+
+	/**
+	 * It will return the comma separated values of the key, trimmed and without empty ones, an empty list if the key is
+	 * missing.
+	 * 
+	 * @param key
+	 * @return unmodifiable List
+	 */
+	public static List<String> getAsList(String key) {
+		return getTyped(key, List.class, ConfigProvider::parseList, Collections.<String> emptyList());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T getTyped(String key, Object type, Function<String, T> parser, T missingValue) {
+		long start = ConfigStats.start();
+		ConcurrentMap<String, Object> values = snapshot.typedValues.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+		String environment = snapshot.environment;
+		boolean systemProperty = getSystemProperty(environment, key) != null;
+		Object value = systemProperty ? null : values.get(key);
+		if (value == null) {
+			String text = lookup(environment, null, key);
+			value = text == null ? MISSING : parser.apply(text);
+			if (!systemProperty) {
+				values.putIfAbsent(key, value);
+			}
+		}
+		ConfigStats.record(key, value != MISSING, start);
+		return value == MISSING ? missingValue : (T) value;
+	}
+
+	private static Duration parseDuration(String key, String value, TemporalUnit unit) {
+		if (value.startsWith("P") || value.startsWith("p")) {
+			return Duration.parse(value);
+		}
+		Matcher matcher = DURATION_PATTERN.matcher(value);
+		if (!matcher.matches()) {
+			throw new IllegalArgumentException("'" + key + "' is not a duration: " + value);
+		}
+		long amount = Long.parseLong(matcher.group(1));
+		String suffix = matcher.group(2).toLowerCase();
+		switch (suffix) {
+		case "":
+			return Duration.of(amount, unit);
+		case "ms":
+			return Duration.ofMillis(amount);
+		case "s":
+			return Duration.ofSeconds(amount);
+		case "m":
+			return Duration.ofMinutes(amount);
+		case "h":
+			return Duration.ofHours(amount);
+		case "d":
+			return Duration.ofDays(amount);
+		default:
+			throw new IllegalArgumentException("'" + key + "' has an unknown duration unit: " + value);
+		}
+	}
+
+	private static <E extends Enum<E>> E parseEnum(String key, String value, Class<E> enumType) {
+		for (E constant : enumType.getEnumConstants()) {
+			if (constant.name().equalsIgnoreCase(value)) {
+				return constant;
+			}
 		}
+		throw new IllegalArgumentException("'" + key + "' is not one of " + Arrays.toString(enumType.getEnumConstants()) + ": " + value);
+	}
+
+	private static List<String> parseList(String value) {
+		List<String> list = new ArrayList<>();
+		for (String item : value.split(",")) {
+			if (!item.trim().isEmpty()) {
+				list.add(item.trim());
+			}
+		}
+		return Collections.unmodifiableList(list);
 	}
 
 	/**
@@ -137,8 +434,9 @@ public final class ConfigProvider {
 	 * @return value
 	 */
 	public static String getAsString(String fileName, String key) {
-		String value = getInstance(fileName).getProperty(key);
-		logger.debug("Reading configuration from properties file[" + fileName + "]. " + key + ":" + value);
+		long start = ConfigStats.start();
+		String value = getInstance(fileName).get(key);
+		ConfigStats.record(key, value != null, start);
 		return value;
 	}
 
@@ -149,34 +447,36 @@ public final class ConfigProvider {
 	 * @return int
 	 */
 	public static int getAsInt(String fileName, String key) {
-		String value = getInstance(fileName).getProperty(key);
+		String value = getAsString(fileName, key);
 		if (value != null) {
-			logger.debug("Reading configuration from properties file[" + fileName + "]. " + key + ":" + value);
 			return Integer.parseInt(value);
 		} else {
 			return 0;
 		}
 	}
 
+	/**
+	 * This method will read the key from the lookup table of the given environment and properties file(see
+	 * {@link #getTable(String, String)}), the files are loaded once and the lookup is a map get.
+	 * 
+	 * @param environment
+	 *            sub folder of the properties folder
+	 * @param propertyFile
+	 *            don't put .properties extension
+	 * @param key
+	 * @return value
+	 */
 	public static String getAsString(String environment, String propertyFile, String key) {
-		Properties props = new Properties();
-		ClassLoader loader = Thread.currentThread().getContextClassLoader();
-		InputStream inputStream = loader.getResourceAsStream(PROPERTIES_FOLDER + File.separator + environment + File.separator + propertyFile + PROPERTIES_EXT);
-		String value = null;
-		try {
-			props.load(inputStream);
-			value = props.getProperty(key);
-			logger.debug("Reading configuration from properties file[" + environment + " - " + propertyFile + "]. " + key + ":" + value);
-			props.clear();
-			inputStream.close();
-		} catch (IOException e) {
-			logger.error("an exception was thrown", e.getMessage());
-		}
+		long start = ConfigStats.start();
+		String value = lookup(environment, propertyFile, key);
+		ConfigStats.record(key, value != null, start);
 		return value;
 	}
 
 	public static void setProperty(String key, String value) {
-		getInstance().setProperty(key, value);
+		synchronized (ConfigProvider.class) {
+			snapshot = snapshot.withOverride(key, value);
+		}
 	}
 
 }
@@ -0,0 +1,110 @@
+package org.wm.oneframework.configprovider;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable view of the loaded configuration. {@link ConfigProvider} publishes a new snapshot for every change(file
+ * loaded, file reloaded, property set, environment switched) and readers only dereference the current one, so reads
+ * need no lock and always see a consistent set of values.
+ */
+final class ConfigSnapshot {
+
+	static final ConfigSnapshot EMPTY = new ConfigSnapshot(null, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), null);
+
+	/**
+	 * Index of the keys of the properties folder(the defaults layer), null until first read.
+	 */
+	final PropertiesIndex index;
+	/**
+	 * Properties of the files of the properties folder loaded so far, keyed by file name without extension.
+	 */
+	final Map<String, Map<String, String>> files;
+	/**
+	 * Flattened lookup tables of the layers above the defaults, keyed by {@link #tableKey(String, String)}.
+	 */
+	final Map<String, Map<String, String>> tables;
+	/**
+	 * Values set at runtime, kept over reloads.
+	 */
+	final Map<String, String> overrides;
+	/**
+	 * Active environment, null when running without one.
+	 */
+	final String environment;
+	/**
+	 * Values of the active environment parsed by the typed getters, keyed by type then key. Every snapshot starts with
+	 * an empty cache, so a change is never hidden by a value parsed before it.
+	 */
+	final ConcurrentMap<Object, ConcurrentMap<String, Object>> typedValues = new ConcurrentHashMap<>();
+
+	private ConfigSnapshot(PropertiesIndex index, Map<String, Map<String, String>> files, Map<String, Map<String, String>> tables, Map<String, String> overrides, String environment) {
+		this.index = index;
+		this.files = files;
+		this.tables = tables;
+		this.overrides = overrides;
+		this.environment = environment;
+	}
+
+	static String tableKey(String environment, String propertyFile) {
+		return (environment == null ? "" : environment) + '/' + (propertyFile == null ? "" : propertyFile);
+	}
+
+	ConfigSnapshot withIndex(PropertiesIndex newIndex) {
+		return new ConfigSnapshot(newIndex, files, tables, overrides, environment);
+	}
+
+	ConfigSnapshot withFile(String fileName, Properties properties) {
+		Map<String, Map<String, String>> newFiles = new HashMap<>(files);
+		newFiles.put(fileName, Collections.unmodifiableMap(toMap(properties)));
+		return new ConfigSnapshot(index, Collections.unmodifiableMap(newFiles), tables, overrides, environment);
+	}
+
+	ConfigSnapshot withoutFile(String fileName) {
+		Map<String, Map<String, String>> newFiles = new HashMap<>(files);
+		newFiles.remove(fileName);
+		return new ConfigSnapshot(index, Collections.unmodifiableMap(newFiles), tables, overrides, environment);
+	}
+
+	ConfigSnapshot withTable(String tableKey, Map<String, String> table) {
+		Map<String, Map<String, String>> newTables = new HashMap<>(tables);
+		newTables.put(tableKey, Collections.unmodifiableMap(table));
+		return new ConfigSnapshot(index, files, Collections.unmodifiableMap(newTables), overrides, environment);
+	}
+
+	ConfigSnapshot withoutTables() {
+		return new ConfigSnapshot(index, files, Collections.emptyMap(), overrides, environment);
+	}
+
+	ConfigSnapshot withOverride(String key, String value) {
+		Map<String, String> newOverrides = new HashMap<>(overrides);
+		newOverrides.put(key, value);
+		Map<String, Map<String, String>> newTables = new HashMap<>(tables);
+		for (Map.Entry<String, Map<String, String>> table : newTables.entrySet()) {
+			Map<String, String> newTable = new HashMap<>(table.getValue());
+			newTable.put(key, value);
+			table.setValue(Collections.unmodifiableMap(newTable));
+		}
+		return new ConfigSnapshot(index, files, Collections.unmodifiableMap(newTables), Collections.unmodifiableMap(newOverrides), environment);
+	}
+
+	/**
+	 * The tables of the other environments are kept, switching back is free.
+	 */
+	ConfigSnapshot withEnvironment(String newEnvironment) {
+		return new ConfigSnapshot(index, files, tables, overrides, newEnvironment);
+	}
+
+	static Map<String, String> toMap(Properties properties) {
+		Map<String, String> values = new HashMap<>();
+		for (String key : properties.stringPropertyNames()) {
+			values.put(key, properties.getProperty(key));
+		}
+		return values;
+	}
+
+}
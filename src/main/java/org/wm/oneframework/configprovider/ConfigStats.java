@@ -0,0 +1,168 @@
+package org.wm.oneframework.configprovider;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counts the lookups of {@link ConfigProvider} per key and samples their latency, cheap enough to stay on during
+ * parallel runs: a lookup costs a map get and a {@link LongAdder} increment, one lookup out of 64(-Dconfig.stats.sampling
+ * to change it) is timed. -Dconfig.stats=false turns it off.
+ * <p>
+ * Read it with {@link #report(int)}(e.g. at the end of the suite, see ConfigStatsListener) or through JMX.
+ */
+public final class ConfigStats implements ConfigStatsMXBean {
+
+	public static final String MBEAN_NAME = "org.wm.oneframework:type=ConfigStats";
+	static final long NOT_SAMPLED = Long.MIN_VALUE;
+	private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("config.stats", "true"));
+	private static final int SAMPLING = Math.max(1, Integer.getInteger("config.stats.sampling", 64));
+	private static final ConfigStats INSTANCE = new ConfigStats();
+
+	private final Map<String, KeyStats> keys = new ConcurrentHashMap<>();
+	private final LongAdder sampledLookups = new LongAdder();
+	private final LongAdder sampledNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+	private ConfigStats() {
+	}
+
+	public static ConfigStats getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return start time of a sampled lookup, {@link #NOT_SAMPLED} for the others
+	 */
+	static long start() {
+		if (ENABLED && ThreadLocalRandom.current().nextInt(SAMPLING) == 0) {
+			return System.nanoTime();
+		}
+		return NOT_SAMPLED;
+	}
+
+	/**
+	 * @param key
+	 * @param found
+	 *            false if the key has no value
+	 * @param startNanos
+	 *            returned by {@link #start()}
+	 */
+	static void record(String key, boolean found, long startNanos) {
+		if (!ENABLED || key == null) {
+			return;
+		}
+		if (startNanos != NOT_SAMPLED) {
+			long nanos = System.nanoTime() - startNanos;
+			INSTANCE.sampledLookups.increment();
+			INSTANCE.sampledNanos.add(nanos);
+			INSTANCE.maxNanos.accumulate(nanos);
+		}
+		KeyStats keyStats = INSTANCE.keys.get(key);
+		if (keyStats == null) {
+			keyStats = INSTANCE.keys.computeIfAbsent(key, k -> new KeyStats());
+		}
+		keyStats.lookups.increment();
+		if (!found) {
+			keyStats.misses.increment();
+		}
+	}
+
+	@Override
+	public Map<String, Long> getLookupCounts() {
+		Map<String, Long> counts = new LinkedHashMap<>();
+		keys.entrySet().stream().sorted(byLookups()).forEach(entry -> counts.put(entry.getKey(), entry.getValue().lookups.sum()));
+		return counts;
+	}
+
+	@Override
+	public Map<String, Long> getMissingKeys() {
+		Map<String, Long> missingKeys = new LinkedHashMap<>();
+		keys.entrySet().stream().filter(entry -> entry.getValue().misses.sum() > 0).sorted(byLookups()).forEach(entry -> missingKeys.put(entry.getKey(), entry.getValue().misses.sum()));
+		return missingKeys;
+	}
+
+	private static Comparator<Map.Entry<String, KeyStats>> byLookups() {
+		return Comparator.comparingLong((Map.Entry<String, KeyStats> entry) -> entry.getValue().lookups.sum()).reversed().thenComparing(Map.Entry.comparingByKey());
+	}
+
+	@Override
+	public long getTotalLookups() {
+		return keys.values().stream().mapToLong(keyStats -> keyStats.lookups.sum()).sum();
+	}
+
+	@Override
+	public long getSampledLookups() {
+		return sampledLookups.sum();
+	}
+
+	@Override
+	public double getMeanLookupNanos() {
+		long samples = sampledLookups.sum();
+		return samples == 0 ? 0 : (double) sampledNanos.sum() / samples;
+	}
+
+	@Override
+	public long getMaxLookupNanos() {
+		return maxNanos.get();
+	}
+
+	@Override
+	public void reset() {
+		keys.clear();
+		sampledLookups.reset();
+		sampledNanos.reset();
+		maxNanos.reset();
+	}
+
+	/**
+	 * It will return a report of the hottest keys, the missing keys and the sampled lookup latency.
+	 * 
+	 * @param hotKeys
+	 *            number of keys listed
+	 * @return String
+	 */
+	public String report(int hotKeys) {
+		StringBuilder report = new StringBuilder("Configuration lookups: ").append(getTotalLookups());
+		report.append(String.format(", sampled latency: mean %.0f ns, max %d ns over %d lookups", getMeanLookupNanos(), getMaxLookupNanos(), getSampledLookups()));
+		report.append(System.lineSeparator()).append("Hot keys:");
+		getLookupCounts().entrySet().stream().limit(hotKeys).forEach(entry -> report.append(System.lineSeparator()).append("  ").append(entry.getKey()).append(": ").append(entry.getValue()));
+		Map<String, Long> missingKeys = getMissingKeys();
+		if (!missingKeys.isEmpty()) {
+			report.append(System.lineSeparator()).append("Missing keys:");
+			missingKeys.forEach((key, misses) -> report.append(System.lineSeparator()).append("  ").append(key).append(": ").append(misses));
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Registers the stats as {@value #MBEAN_NAME} on the platform MBean server, unless already registered.
+	 * 
+	 * @throws JMException
+	 */
+	public static void registerMBean() throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(MBEAN_NAME);
+		synchronized (ConfigStats.class) {
+			if (!server.isRegistered(name)) {
+				server.registerMBean(INSTANCE, name);
+			}
+		}
+	}
+
+	private static final class KeyStats {
+
+		private final LongAdder lookups = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+	}
+
+}
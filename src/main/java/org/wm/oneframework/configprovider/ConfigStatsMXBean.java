@@ -0,0 +1,30 @@
+package org.wm.oneframework.configprovider;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link ConfigStats}, registered as {@value ConfigStats#MBEAN_NAME}.
+ */
+public interface ConfigStatsMXBean {
+
+	/**
+	 * @return number of lookups per key, most read keys first
+	 */
+	Map<String, Long> getLookupCounts();
+
+	/**
+	 * @return number of lookups per key which found no value, most read keys first
+	 */
+	Map<String, Long> getMissingKeys();
+
+	long getTotalLookups();
+
+	long getSampledLookups();
+
+	double getMeanLookupNanos();
+
+	long getMaxLookupNanos();
+
+	void reset();
+
+}
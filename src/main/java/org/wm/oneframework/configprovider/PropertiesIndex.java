@@ -0,0 +1,289 @@
+package org.wm.oneframework.configprovider;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Index of the properties folder telling which file defines each key, so a lookup only loads the file holding the key.
+ * Building the index scans the keys of the files in parallel, values are not kept: a file is only loaded by the first
+ * lookup of one of its keys. A reload only scans the changed file again.
+ * <p>
+ * With -Dconfig.index.dir the index is also kept in that folder and reused by later runs: it is checked against a
+ * CRC32 of the content of each file, and only new or changed files are scanned again. Without it nothing is written.
+ * <p>
+ * Files are applied in name order, a key defined by several files resolves to the last one. Such collisions are
+ * reported when the index is built.
+ */
+final class PropertiesIndex {
+
+	private static final String INDEX_DIR_PROPERTY = "config.index.dir";
+	private static final String INDEX_EXT = ".index";
+	private static final String PROPERTIES_EXT = ".properties";
+	private static final String FOLDER_KEY = "folder";
+	private static final String FORMAT_KEY = "format";
+	private static final String FORMAT = "2";
+	private static final String FILE_PREFIX = "file.";
+	private static final String SEPARATOR = "\u001F";
+	private static Logger logger = LogManager.getLogger(PropertiesIndex.class.getName());
+
+	private final File propertiesFolder;
+	private final Map<String, IndexedFile> indexedFiles;
+	private final Map<String, String> fileByKey = new HashMap<>();
+	private final Map<String, List<String>> collisions = new LinkedHashMap<>();
+
+	private PropertiesIndex(File propertiesFolder, Map<String, IndexedFile> indexedFiles) {
+		this.propertiesFolder = propertiesFolder.getAbsoluteFile();
+		this.indexedFiles = indexedFiles;
+		Map<String, List<String>> filesByKey = new HashMap<>();
+		for (IndexedFile indexedFile : indexedFiles.values()) {
+			for (String key : indexedFile.keys) {
+				fileByKey.put(key, indexedFile.name);
+				filesByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(indexedFile.name + PROPERTIES_EXT);
+			}
+		}
+		filesByKey.entrySet().stream().filter(entry -> entry.getValue().size() > 1).sorted(Map.Entry.comparingByKey()).forEach(entry -> collisions.put(entry.getKey(), Collections.unmodifiableList(entry.getValue())));
+	}
+
+	/**
+	 * @param key
+	 * @return name(without extension) of the file defining the key, null if no file defines it
+	 */
+	String getFile(String key) {
+		return fileByKey.get(key);
+	}
+
+	/**
+	 * @return keys defined by several files, with the files in the order they are applied(the last one wins)
+	 */
+	Map<String, List<String>> getCollisions() {
+		return Collections.unmodifiableMap(collisions);
+	}
+
+	int size() {
+		return fileByKey.size();
+	}
+
+	/**
+	 * Builds the index of the properties files of the folder, reusing the stored index(-Dconfig.index.dir) for the
+	 * files whose content didn't change.
+	 *
+	 * @param propertiesFolder
+	 * @return PropertiesIndex
+	 */
+	static PropertiesIndex build(File propertiesFolder) {
+		File[] propertiesFiles = propertiesFolder.listFiles(file -> file.isFile() && file.getName().endsWith(PROPERTIES_EXT));
+		if (propertiesFiles == null) {
+			propertiesFiles = new File[0];
+		}
+		Arrays.sort(propertiesFiles);
+		File indexFile = getIndexFile(propertiesFolder);
+		Map<String, IndexedFile> storedFiles = indexFile == null ? Collections.emptyMap() : readIndex(indexFile, propertiesFolder);
+		Map<String, IndexedFile> indexedFiles = new LinkedHashMap<>();
+		List<IndexedFile> scannedFiles = Arrays.stream(propertiesFiles).parallel().map(file -> scan(file, storedFiles.get(getName(file)))).collect(Collectors.toList());
+		int scanned = 0;
+		for (IndexedFile indexedFile : scannedFiles) {
+			indexedFiles.put(indexedFile.name, indexedFile);
+			if (indexedFile != storedFiles.get(indexedFile.name)) {
+				scanned++;
+			}
+		}
+		PropertiesIndex index = new PropertiesIndex(propertiesFolder, indexedFiles);
+		if (indexFile != null && (scanned > 0 || storedFiles.size() != indexedFiles.size())) {
+			index.write(indexFile, propertiesFolder);
+		}
+		logger.info("Indexed " + index.size() + " keys of " + indexedFiles.size() + " properties files, scanned " + scanned + " of them.");
+		index.reportCollisions();
+		return index;
+	}
+
+	/**
+	 * It will return the index with the given file of the folder scanned again and the deleted files dropped. Files
+	 * outside the folder(e.g. of an environment) return the index unchanged.
+	 *
+	 * @param currentFolder
+	 *            properties folder in use
+	 * @param changedFile
+	 * @return PropertiesIndex, null if the index was built for another properties folder
+	 */
+	PropertiesIndex withFile(File currentFolder, File changedFile) {
+		if (!propertiesFolder.equals(currentFolder.getAbsoluteFile())) {
+			return null;
+		}
+		File changedFolder = changedFile.getAbsoluteFile().getParentFile();
+		if (!changedFile.getName().endsWith(PROPERTIES_EXT) || !propertiesFolder.equals(changedFolder)) {
+			return this;
+		}
+		Map<String, IndexedFile> sortedFiles = new TreeMap<>(indexedFiles);
+		sortedFiles.keySet().removeIf(name -> !new File(propertiesFolder, name + PROPERTIES_EXT).isFile());
+		if (changedFile.isFile()) {
+			sortedFiles.put(getName(changedFile), scan(changedFile, null));
+		}
+		PropertiesIndex index = new PropertiesIndex(propertiesFolder, new LinkedHashMap<>(sortedFiles));
+		File indexFile = getIndexFile(propertiesFolder);
+		if (indexFile != null) {
+			index.write(indexFile, propertiesFolder);
+		}
+		index.reportCollisions();
+		return index;
+	}
+
+	private void reportCollisions() {
+		for (Map.Entry<String, List<String>> collision : collisions.entrySet()) {
+			List<String> files = collision.getValue();
+			logger.warn("Key '" + collision.getKey() + "' is defined in " + files + ", the value of " + files.get(files.size() - 1) + " is used.");
+		}
+	}
+
+	private static String getName(File file) {
+		return file.getName().substring(0, file.getName().length() - PROPERTIES_EXT.length());
+	}
+
+	/**
+	 * It will return the stored entry of the file if its content is unchanged, otherwise a new entry with the keys of
+	 * the file.
+	 */
+	private static IndexedFile scan(File file, IndexedFile storedFile) {
+		String name = getName(file);
+		byte[] content;
+		try {
+			content = Files.readAllBytes(file.toPath());
+		} catch (IOException e) {
+			logger.warn("Not able to load property!! " + e.getMessage());
+			return new IndexedFile(name, -1, Collections.<String> emptyList());
+		}
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		if (storedFile != null && storedFile.checksum == crc.getValue()) {
+			return storedFile;
+		}
+		KeyScanner scanner = new KeyScanner();
+		try (InputStream is = new ByteArrayInputStream(content)) {
+			scanner.load(is);
+		} catch (IOException | IllegalArgumentException e) {
+			logger.warn("Not able to load property!! " + e.getMessage());
+		}
+		return new IndexedFile(name, crc.getValue(), new ArrayList<>(scanner.keys));
+	}
+
+	/**
+	 * It will return the file of the stored index, null when -Dconfig.index.dir is not set.
+	 */
+	private static File getIndexFile(File propertiesFolder) {
+		String indexDir = System.getProperty(INDEX_DIR_PROPERTY);
+		if (indexDir == null || indexDir.trim().isEmpty()) {
+			return null;
+		}
+		File indexFolder = new File(indexDir);
+		String folderPath = propertiesFolder.getAbsolutePath();
+		return new File(indexFolder, propertiesFolder.getName() + "-" + Integer.toHexString(folderPath.hashCode()) + INDEX_EXT);
+	}
+
+	private static Map<String, IndexedFile> readIndex(File indexFile, File propertiesFolder) {
+		Map<String, IndexedFile> storedFiles = new HashMap<>();
+		if (!indexFile.isFile()) {
+			return storedFiles;
+		}
+		Properties index = new Properties();
+		try (InputStream is = new FileInputStream(indexFile)) {
+			index.load(is);
+		} catch (IOException e) {
+			logger.debug("Not able to read the properties index " + indexFile + ": " + e.getMessage());
+			return storedFiles;
+		}
+		if (!propertiesFolder.getAbsolutePath().equals(index.getProperty(FOLDER_KEY)) || !FORMAT.equals(index.getProperty(FORMAT_KEY))) {
+			return storedFiles;
+		}
+		for (String entry : index.stringPropertyNames()) {
+			if (entry.startsWith(FILE_PREFIX)) {
+				String name = entry.substring(FILE_PREFIX.length());
+				String[] fields = index.getProperty(entry).split(SEPARATOR, -1);
+				try {
+					List<String> keys = Arrays.asList(fields).subList(1, fields.length);
+					storedFiles.put(name, new IndexedFile(name, Long.parseLong(fields[0]), keys));
+				} catch (RuntimeException e) {
+					logger.debug("Skipped the invalid index entry of " + name + ": " + e.getMessage());
+				}
+			}
+		}
+		return storedFiles;
+	}
+
+	private void write(File indexFile, File propertiesFolder) {
+		Properties index = new Properties();
+		index.setProperty(FOLDER_KEY, propertiesFolder.getAbsolutePath());
+		index.setProperty(FORMAT_KEY, FORMAT);
+		for (IndexedFile indexedFile : indexedFiles.values()) {
+			StringBuilder value = new StringBuilder().append(indexedFile.checksum);
+			for (String key : indexedFile.keys) {
+				value.append(SEPARATOR).append(key);
+			}
+			index.setProperty(FILE_PREFIX + indexedFile.name, value.toString());
+		}
+		indexFile.getParentFile().mkdirs();
+		File tempFile = null;
+		try {
+			tempFile = File.createTempFile(indexFile.getName(), ".tmp", indexFile.getParentFile());
+			try (OutputStream os = new FileOutputStream(tempFile)) {
+				index.store(os, "Generated by " + PropertiesIndex.class.getSimpleName() + ", do not edit.");
+			}
+			Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			logger.debug("Not able to write the properties index " + indexFile + ": " + e.getMessage());
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+
+	private static final class IndexedFile {
+
+		private final String name;
+		private final long checksum;
+		private final List<String> keys;
+
+		IndexedFile(String name, long checksum, List<String> keys) {
+			this.name = name;
+			this.checksum = checksum;
+			this.keys = keys;
+		}
+	}
+
+	/**
+	 * Properties parser which only collects the keys, the values are dropped as soon as they are parsed.
+	 */
+	private static final class KeyScanner extends Properties {
+
+		private static final long serialVersionUID = 1L;
+		private final Set<String> keys = new LinkedHashSet<>();
+
+		@Override
+		public synchronized Object put(Object key, Object value) {
+			keys.add((String) key);
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,29 @@
+package org.wm.oneframework.excelreader;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link SheetReaderProvider} for delimited text files, e.g. comma separated .csv and tab separated .tsv files.
+ */
+public class DelimitedTextProvider implements SheetReaderProvider {
+
+	private final String extension;
+	private final char delimiter;
+
+	public DelimitedTextProvider(String extension, char delimiter) {
+		this.extension = extension;
+		this.delimiter = delimiter;
+	}
+
+	@Override
+	public List<String> getExtensions() {
+		return Collections.singletonList(extension);
+	}
+
+	@Override
+	public SheetReader createReader() {
+		return new DelimitedTextReader(delimiter);
+	}
+
+}
@@ -0,0 +1,191 @@
+package org.wm.oneframework.excelreader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RFC 4180 reader for delimited UTF-8 text files. The file is memory mapped and scanned in place, bytes are only copied
+ * once to build the String of a field. Quoted fields may contain delimiters, line breaks and doubled quotes, records may
+ * end with CRLF or LF and blank lines are skipped. A text file has a single sheet, the sheet name is ignored.
+ * <p>
+ * Files are mapped in windows of up to 1 GB, a record crossing the end of a window is parsed again from the next
+ * window.
+ */
+public class DelimitedTextReader implements SheetReader {
+
+	private static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+	private static final byte QUOTE = '"';
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+	private static final int INCOMPLETE = -1;
+
+	private final byte delimiter;
+	private final int windowSize;
+	private final List<String> fields = new ArrayList<>();
+	private byte[] scratch = new byte[256];
+
+	public DelimitedTextReader(char delimiter) {
+		this(delimiter, DEFAULT_WINDOW_SIZE);
+	}
+
+	DelimitedTextReader(char delimiter, int windowSize) {
+		this.delimiter = (byte) delimiter;
+		this.windowSize = windowSize;
+	}
+
+	@Override
+	public void read(File textFile, String sheetName, RowHandler rowHandler) throws IOException {
+		try (FileChannel channel = FileChannel.open(textFile.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			long windowStart = 0;
+			int rowIndex = 0;
+			while (windowStart < size) {
+				int limit = (int) Math.min(windowSize, size - windowStart);
+				boolean lastWindow = windowStart + limit == size;
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, limit);
+				int position = windowStart == 0 ? skipByteOrderMark(buffer, limit) : 0;
+				while (position < limit) {
+					int next = parseRecord(buffer, position, limit, lastWindow);
+					if (next == INCOMPLETE) {
+						break;
+					}
+					if (fields.size() > 1 || !fields.get(0).isEmpty()) {
+						rowHandler.handleRow(rowIndex++, fields.toArray(new String[0]));
+					}
+					position = next;
+				}
+				if (position == 0 && !lastWindow) {
+					throw new IOException("Record at offset " + windowStart + " of '" + textFile.getName() + "' is larger than " + windowSize + " bytes.");
+				}
+				windowStart += position;
+			}
+		}
+	}
+
+	@Override
+	public List<String> getSheetNames(File textFile) {
+		String fileName = textFile.getName();
+		int extensionIndex = fileName.lastIndexOf('.');
+		return Collections.singletonList(extensionIndex < 0 ? fileName : fileName.substring(0, extensionIndex));
+	}
+
+	private static int skipByteOrderMark(MappedByteBuffer buffer, int limit) {
+		if (limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF) {
+			return 3;
+		}
+		return 0;
+	}
+
+	/**
+	 * Parses the record starting at position into {@link #fields}.
+	 *
+	 * @return position of the next record, or {@link #INCOMPLETE} if the record doesn't end before limit and more data
+	 *         follows in the next window
+	 */
+	private int parseRecord(MappedByteBuffer buffer, int position, int limit, boolean lastWindow) {
+		fields.clear();
+		int pos = position;
+		while (true) {
+			if (pos < limit && buffer.get(pos) == QUOTE) {
+				pos = parseQuotedField(buffer, pos + 1, limit, lastWindow);
+			} else {
+				int start = pos;
+				while (pos < limit && !isFieldEnd(buffer.get(pos))) {
+					pos++;
+				}
+				if (pos >= limit && !lastWindow) {
+					return INCOMPLETE;
+				}
+				fields.add(decode(buffer, start, pos));
+			}
+			if (pos == INCOMPLETE || pos >= limit) {
+				return pos;
+			}
+			byte separator = buffer.get(pos++);
+			if (separator == delimiter) {
+				continue;
+			}
+			if (separator == CR) {
+				if (pos >= limit) {
+					return lastWindow ? pos : INCOMPLETE;
+				}
+				if (buffer.get(pos) == LF) {
+					pos++;
+				}
+			}
+			return pos;
+		}
+	}
+
+	private int parseQuotedField(MappedByteBuffer buffer, int position, int limit, boolean lastWindow) {
+		int pos = position;
+		int segmentStart = pos;
+		int length = 0;
+		while (true) {
+			if (pos >= limit) {
+				if (!lastWindow) {
+					return INCOMPLETE;
+				}
+				length = copy(buffer, segmentStart, pos, length);
+				break;
+			}
+			if (buffer.get(pos) == QUOTE) {
+				if (pos + 1 >= limit && !lastWindow) {
+					return INCOMPLETE;
+				}
+				if (pos + 1 < limit && buffer.get(pos + 1) == QUOTE) {
+					length = copy(buffer, segmentStart, pos + 1, length);
+					pos += 2;
+					segmentStart = pos;
+					continue;
+				}
+				length = copy(buffer, segmentStart, pos, length);
+				pos++;
+				break;
+			}
+			pos++;
+		}
+		int trailingStart = pos;
+		while (pos < limit && !isFieldEnd(buffer.get(pos))) {
+			pos++;
+		}
+		if (pos >= limit && !lastWindow) {
+			return INCOMPLETE;
+		}
+		length = copy(buffer, trailingStart, pos, length);
+		fields.add(new String(scratch, 0, length, StandardCharsets.UTF_8));
+		return pos;
+	}
+
+	private boolean isFieldEnd(byte b) {
+		return b == delimiter || b == LF || b == CR;
+	}
+
+	private String decode(MappedByteBuffer buffer, int start, int end) {
+		if (start == end) {
+			return "";
+		}
+		int length = copy(buffer, start, end, 0);
+		return new String(scratch, 0, length, StandardCharsets.UTF_8);
+	}
+
+	private int copy(MappedByteBuffer buffer, int start, int end, int offset) {
+		int length = end - start;
+		if (offset + length > scratch.length) {
+			byte[] larger = new byte[Math.max(scratch.length * 2, offset + length)];
+			System.arraycopy(scratch, 0, larger, 0, offset);
+			scratch = larger;
+		}
+		buffer.position(start);
+		buffer.get(scratch, offset, length);
+		return offset + length;
+	}
+
+}
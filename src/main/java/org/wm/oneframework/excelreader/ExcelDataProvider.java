@@ -1,9 +1,7 @@
 package org.wm.oneframework.excelreader;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-
-import org.wm.oneframework.annotation.ExcelDetails;
+import java.util.Iterator;
 
 public class ExcelDataProvider {
 
@@ -11,6 +9,8 @@ public class ExcelDataProvider {
 	private ThreadLocal<String> classSheetName = new ThreadLocal<>();
 	private ThreadLocal<String> methodExcelName = new ThreadLocal<>();
 	private ThreadLocal<String> methodSheetName = new ThreadLocal<>();
+	private ThreadLocal<String> classFilter = new ThreadLocal<>();
+	private ThreadLocal<String> methodFilter = new ThreadLocal<>();
 	private ThreadLocal<Class<?>> testClass = new ThreadLocal<>();
 
 	public ExcelDataProvider(Class<?> testClass) {
@@ -18,38 +18,63 @@ public class ExcelDataProvider {
 	}
 
 	private void getExcelDetailsFromClass() {
-		if (testClass.get().isAnnotationPresent(ExcelDetails.class)) {
-			Annotation annotation = testClass.get().getAnnotation(ExcelDetails.class);
-			ExcelDetails excelDetails = (ExcelDetails) annotation;
-			if (excelDetails.excelName().isEmpty()) {
-				classExcelName.set(testClass.get().getSimpleName());
-			} else {
-				classExcelName.set(excelDetails.excelName());
-			}
-			classSheetName.set(excelDetails.sheetName());
+		ExcelSource excelSource = ExcelDetailsIndex.forClass(testClass.get());
+		if (excelSource != null) {
+			classExcelName.set(excelSource.getExcelName());
+			classSheetName.set(excelSource.getSheetName());
+			classFilter.set(excelSource.getFilter());
 		}
 	}
 
 	private void getExcelDetailsFromMethod(Method method) {
-		if (method.isAnnotationPresent(ExcelDetails.class)) {
-			Annotation annotation = method.getAnnotation(ExcelDetails.class);
-			ExcelDetails excelDetails = (ExcelDetails) annotation;
-			if (excelDetails.excelName().isEmpty()) {
-				methodExcelName.set(method.getName());
-			} else {
-				methodExcelName.set(excelDetails.excelName());
-			}
-			methodSheetName.set(excelDetails.sheetName());
+		ExcelSource excelSource = ExcelDetailsIndex.forMethod(method);
+		if (excelSource != null) {
+			methodExcelName.set(excelSource.getExcelName());
+			methodSheetName.set(excelSource.getSheetName());
+			methodFilter.set(excelSource.getFilter());
 		}
 	}
 
 	public Object[][] data(Method method) {
 		getExcelDetailsFromMethod(method);
 		if (methodExcelName.get() != null && methodSheetName.get() != null) {
-			return ReadExcel.getData(methodExcelName.get(), methodSheetName.get());
+			return ReadExcel.getData(methodExcelName.get(), methodSheetName.get(), methodFilter.get());
+		}
+		getExcelDetailsFromClass();
+		return ReadExcel.getData(classExcelName.get(), classSheetName.get(), classFilter.get());
+	}
+
+	/**
+	 * Shard aware variant of {@link #data(Method)}. When the suite runs on several JVMs, each of them gets its own share
+	 * of the rows as configured by {@link ShardSpec#current()}.
+	 * 
+	 * @param method
+	 * @return Object[][]
+	 */
+	public Object[][] shardedData(Method method) {
+		ShardSpec shard = ShardSpec.current();
+		getExcelDetailsFromMethod(method);
+		if (methodExcelName.get() != null && methodSheetName.get() != null) {
+			return ReadExcel.getData(methodExcelName.get(), methodSheetName.get(), methodFilter.get(), shard);
+		}
+		getExcelDetailsFromClass();
+		return ReadExcel.getData(classExcelName.get(), classSheetName.get(), classFilter.get(), shard);
+	}
+
+	/**
+	 * Lazy variant of {@link #data(Method)}. Rows are handed to TestNG while the sheet is still being read, use it for
+	 * huge sheets.
+	 * 
+	 * @param method
+	 * @return Iterator
+	 */
+	public Iterator<Object[]> lazyData(Method method) {
+		getExcelDetailsFromMethod(method);
+		if (methodExcelName.get() != null && methodSheetName.get() != null) {
+			return ReadExcel.getDataIterator(methodExcelName.get(), methodSheetName.get(), methodFilter.get());
 		}
 		getExcelDetailsFromClass();
-		return ReadExcel.getData(classExcelName.get(), classSheetName.get());
+		return ReadExcel.getDataIterator(classExcelName.get(), classSheetName.get(), classFilter.get());
 	}
 
 }
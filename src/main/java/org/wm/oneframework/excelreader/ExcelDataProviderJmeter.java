@@ -1,16 +1,13 @@
 package org.wm.oneframework.excelreader;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.wm.oneframework.annotation.ExcelDetails;
-
 public class ExcelDataProviderJmeter {
 
 	
-	private String[] excelDetailsValue = new String[2];
+	private String[] excelDetailsValue = new String[3];
 	private Map<String, String[]> methodExcelDetails = new HashMap<>();
 	private Class<?> obj = null;
 
@@ -19,33 +16,18 @@ public class ExcelDataProviderJmeter {
 	}
 
 	private void getExcelDetailsFromClass() {
-		if (obj.isAnnotationPresent(ExcelDetails.class)) {
-			Annotation annotation = obj.getAnnotation(ExcelDetails.class);
-			ExcelDetails excelDetails = (ExcelDetails) annotation;
-			if (excelDetails.excelName().isEmpty()) {
-				excelDetailsValue[0] = obj.getSimpleName();
-			} else {
-				excelDetailsValue[0] = excelDetails.excelName();
-			}
-			excelDetailsValue[1] = excelDetails.sheetName();
+		ExcelSource excelSource = ExcelDetailsIndex.forClass(obj);
+		if (excelSource != null) {
+			excelDetailsValue[0] = excelSource.getExcelName();
+			excelDetailsValue[1] = excelSource.getSheetName();
+			excelDetailsValue[2] = excelSource.getFilter();
 		}
 	}
 
 	private void getExcelDetailsFromMethod() {
-		Method[] methodList = obj.getDeclaredMethods();
-		for (Method method : methodList) {
-			String[] excelInfo = new String[2];
-			if (method.isAnnotationPresent(ExcelDetails.class)) {
-				Annotation annotation = method.getAnnotation(ExcelDetails.class);
-				ExcelDetails excelDetails = (ExcelDetails) annotation;
-				if (excelDetails.excelName().isEmpty()) {
-					excelInfo[0] = method.getName();
-				} else {
-					excelInfo[0] = excelDetails.excelName();
-				}
-				excelInfo[1] = excelDetails.sheetName();
-			}
-			methodExcelDetails.put(method.getName(), excelInfo);
+		for (Map.Entry<String, ExcelSource> entry : ExcelDetailsIndex.getMethods(obj).entrySet()) {
+			ExcelSource excelSource = entry.getValue();
+			methodExcelDetails.put(entry.getKey(), new String[] { excelSource.getExcelName(), excelSource.getSheetName(), excelSource.getFilter() });
 		}
 	}
 
@@ -55,9 +37,8 @@ public class ExcelDataProviderJmeter {
 	}
 
 	public Object[][] data(Method method) {
-		if (methodExcelDetails.get(method.getName())[0] != null
-				&& methodExcelDetails.get(method.getName())[1] != null) {
-			String[] methodExcelInfo = methodExcelDetails.get(method.getName());
+		String[] methodExcelInfo = methodExcelDetails.get(method.getName());
+		if (methodExcelInfo != null) {
 			return ReadExcelJmeter.readData(methodExcelInfo);
 		}
 		return ReadExcelJmeter.readData(excelDetailsValue);
@@ -0,0 +1,130 @@
+package org.wm.oneframework.excelreader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.wm.oneframework.annotation.ExcelDetails;
+
+/**
+ * Lookup of the {@link ExcelDetails} of test classes and methods. The details are resolved at compile time by
+ * {@link ExcelDetailsProcessor} into index files on the classpath, which are loaded once, so a lookup is a map get
+ * instead of reflection. Classes missing from the index(e.g. compiled without the processor) are resolved through
+ * reflection on their first lookup and then kept in the same map.
+ */
+public final class ExcelDetailsIndex {
+
+	/**
+	 * Index file written by {@link ExcelDetailsProcessor}. Keys are 'class' and 'class#method', values are
+	 * excelName, sheetName and filter separated by {@link #SEPARATOR}. A class with no class level details is indexed
+	 * with an empty value.
+	 */
+	public static final String INDEX_RESOURCE = "META-INF/oneframework/excel-details.properties";
+	static final char SEPARATOR = '\u001F';
+
+	private static Logger logger = Logger.getLogger(ExcelDetailsIndex.class.getName());
+	private static final Map<String, IndexedClass> classes = new ConcurrentHashMap<>(loadIndex());
+
+	private ExcelDetailsIndex() {
+	}
+
+	/**
+	 * @param testClass
+	 * @return class level details, null if the class isn't annotated
+	 */
+	public static ExcelSource forClass(Class<?> testClass) {
+		return getIndexedClass(testClass).classSource;
+	}
+
+	/**
+	 * @param method
+	 * @return method level details, null if the method isn't annotated
+	 */
+	public static ExcelSource forMethod(Method method) {
+		return getIndexedClass(method.getDeclaringClass()).methodSources.get(method.getName());
+	}
+
+	/**
+	 * @param testClass
+	 * @return method level details of the annotated methods declared by the class, keyed by method name
+	 */
+	public static Map<String, ExcelSource> getMethods(Class<?> testClass) {
+		return Collections.unmodifiableMap(getIndexedClass(testClass).methodSources);
+	}
+
+	private static IndexedClass getIndexedClass(Class<?> testClass) {
+		IndexedClass indexedClass = classes.get(testClass.getName());
+		if (indexedClass == null) {
+			indexedClass = classes.computeIfAbsent(testClass.getName(), name -> reflect(testClass));
+		}
+		return indexedClass;
+	}
+
+	private static IndexedClass reflect(Class<?> testClass) {
+		ExcelDetails classDetails = testClass.getAnnotation(ExcelDetails.class);
+		IndexedClass indexedClass = new IndexedClass(classDetails == null ? null : toSource(classDetails, testClass.getSimpleName()));
+		for (Method method : testClass.getDeclaredMethods()) {
+			ExcelDetails methodDetails = method.getAnnotation(ExcelDetails.class);
+			if (methodDetails != null) {
+				indexedClass.methodSources.put(method.getName(), toSource(methodDetails, method.getName()));
+			}
+		}
+		return indexedClass;
+	}
+
+	private static ExcelSource toSource(ExcelDetails excelDetails, String defaultExcelName) {
+		String excelName = excelDetails.excelName().isEmpty() ? defaultExcelName : excelDetails.excelName();
+		return new ExcelSource(excelName, excelDetails.sheetName(), excelDetails.filter());
+	}
+
+	private static Map<String, IndexedClass> loadIndex() {
+		Map<String, IndexedClass> index = new HashMap<>();
+		try {
+			Enumeration<URL> resources = Thread.currentThread().getContextClassLoader().getResources(INDEX_RESOURCE);
+			while (resources.hasMoreElements()) {
+				Properties entries = new Properties();
+				try (InputStream is = resources.nextElement().openStream()) {
+					entries.load(is);
+				}
+				for (String key : entries.stringPropertyNames()) {
+					int methodIndex = key.indexOf('#');
+					if (methodIndex < 0) {
+						index.computeIfAbsent(key, k -> new IndexedClass(null)).classSource = parse(entries.getProperty(key));
+					} else {
+						index.computeIfAbsent(key.substring(0, methodIndex), k -> new IndexedClass(null)).methodSources.put(key.substring(methodIndex + 1), parse(entries.getProperty(key)));
+					}
+				}
+			}
+		} catch (IOException e) {
+			logger.warning("Unable to load the excel details index, falling back to reflection: " + e.getMessage());
+		}
+		return index;
+	}
+
+	private static ExcelSource parse(String value) {
+		if (value.isEmpty()) {
+			return null;
+		}
+		String[] fields = value.split(String.valueOf(SEPARATOR), -1);
+		return new ExcelSource(fields[0], fields[1], fields[2]);
+	}
+
+	private static final class IndexedClass {
+
+		private ExcelSource classSource;
+		private final Map<String, ExcelSource> methodSources = new HashMap<>();
+
+		IndexedClass(ExcelSource classSource) {
+			this.classSource = classSource;
+		}
+	}
+
+}
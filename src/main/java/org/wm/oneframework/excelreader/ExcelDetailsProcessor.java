@@ -0,0 +1,150 @@
+package org.wm.oneframework.excelreader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.wm.oneframework.annotation.ExcelDetails;
+
+/**
+ * Annotation processor writing the {@link ExcelDetailsIndex} of the compiled test classes, with the excel and sheet
+ * names of every {@link ExcelDetails} resolved the same way the data providers resolve them at runtime.
+ * <p>
+ * When the option -Aexcel.data.dir is given, the workbooks and sheets are checked while compiling. Missing ones are
+ * reported as warnings, or as errors failing the build with -Aexcel.validation=error(-Aexcel.validation=none skips the
+ * check). Elements annotated with, or declared in a class annotated with, @SuppressWarnings("excel-details") are not
+ * checked, e.g. tests reading workbooks they generate at run time.
+ * <p>
+ * The processor isn't registered in META-INF/services, it would otherwise run in every compilation having this jar on
+ * its classpath. Projects name it in the annotationProcessors of their test compile.
+ */
+public class ExcelDetailsProcessor extends AbstractProcessor {
+
+	static final String DATA_DIR_OPTION = "excel.data.dir";
+	static final String VALIDATION_OPTION = "excel.validation";
+	static final String SUPPRESS_WARNINGS_KEY = "excel-details";
+
+	private final Map<String, String> index = new TreeMap<>();
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(ExcelDetails.class.getName());
+	}
+
+	@Override
+	public Set<String> getSupportedOptions() {
+		return new HashSet<>(Arrays.asList(DATA_DIR_OPTION, VALIDATION_OPTION));
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			if (!index.isEmpty()) {
+				writeIndex();
+			}
+			return false;
+		}
+		for (Element element : roundEnv.getElementsAnnotatedWith(ExcelDetails.class)) {
+			ExcelDetails excelDetails = element.getAnnotation(ExcelDetails.class);
+			if (element.getKind() == ElementKind.METHOD) {
+				TypeElement testClass = (TypeElement) element.getEnclosingElement();
+				String className = getBinaryName(testClass);
+				index.putIfAbsent(className, "");
+				index.put(className + "#" + element.getSimpleName(), resolve(element, excelDetails, element.getSimpleName().toString()));
+			} else {
+				index.put(getBinaryName((TypeElement) element), resolve(element, excelDetails, element.getSimpleName().toString()));
+			}
+		}
+		return false;
+	}
+
+	private String getBinaryName(TypeElement typeElement) {
+		return processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+	}
+
+	private String resolve(Element element, ExcelDetails excelDetails, String defaultExcelName) {
+		String excelName = excelDetails.excelName().isEmpty() ? defaultExcelName : excelDetails.excelName();
+		validate(element, excelName, excelDetails.sheetName(), excelDetails.filter());
+		return excelName + ExcelDetailsIndex.SEPARATOR + excelDetails.sheetName() + ExcelDetailsIndex.SEPARATOR + excelDetails.filter();
+	}
+
+	private void validate(Element element, String excelName, String sheetName, String filter) {
+		String validation = processingEnv.getOptions().getOrDefault(VALIDATION_OPTION, "warning");
+		if ("none".equalsIgnoreCase(validation)) {
+			return;
+		}
+		Diagnostic.Kind kind = "error".equalsIgnoreCase(validation) ? Diagnostic.Kind.ERROR : Diagnostic.Kind.WARNING;
+		try {
+			RowFilter.compile(filter);
+		} catch (RuntimeException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), element);
+		}
+		String dataDir = processingEnv.getOptions().get(DATA_DIR_OPTION);
+		if (dataDir == null || isSuppressed(element)) {
+			return;
+		}
+		File dataFile = ExcelFiles.findDataFile(new File(dataDir), excelName);
+		if (dataFile == null) {
+			processingEnv.getMessager().printMessage(kind, "Excel '" + excelName + "' is not available in " + dataDir + ".", element);
+			return;
+		}
+		if (SheetReaders.providerFor(dataFile) != null) {
+			return;
+		}
+		try {
+			List<String> sheetNames = SheetReaders.streamingReader(dataFile).getSheetNames(dataFile);
+			if (!sheetNames.contains(sheetName)) {
+				processingEnv.getMessager().printMessage(kind, "Sheet '" + sheetName + "' is not available in excel '" + dataFile.getName() + "'. Available sheets: " + sheetNames + ".", element);
+			}
+		} catch (IOException | RuntimeException e) {
+			processingEnv.getMessager().printMessage(kind, "Unable to read excel '" + dataFile.getName() + "': " + e.getMessage(), element);
+		}
+	}
+
+	private static boolean isSuppressed(Element element) {
+		for (Element current = element; current != null; current = current.getEnclosingElement()) {
+			SuppressWarnings suppressWarnings = current.getAnnotation(SuppressWarnings.class);
+			if (suppressWarnings != null && Arrays.asList(suppressWarnings.value()).contains(SUPPRESS_WARNINGS_KEY)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void writeIndex() {
+		Properties properties = new Properties();
+		properties.putAll(index);
+		try {
+			FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ExcelDetailsIndex.INDEX_RESOURCE);
+			try (OutputStream os = resource.openOutputStream()) {
+				properties.store(os, "Generated by " + ExcelDetailsProcessor.class.getSimpleName() + ", do not edit.");
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Unable to write " + ExcelDetailsIndex.INDEX_RESOURCE + ": " + e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,61 @@
+package org.wm.oneframework.excelreader;
+
+import java.io.File;
+
+import org.wm.oneframework.exception.ExcelDetailException;
+
+/**
+ * Resolves the workbook behind an excel name. Workbooks are looked up in the 'data' folder of the classpath, which
+ * can be overridden with -Dexcel.data.dir. An .xls or .xlsx workbook wins over a data file of a
+ * {@link SheetReaderProvider}(e.g. .csv).
+ */
+final class ExcelFiles {
+
+	private static final String DATA_DIR_PROPERTY = "excel.data.dir";
+	private static final String DATA_FOLDER = "./data";
+
+	private ExcelFiles() {
+	}
+
+	static File getDataFolder() {
+		String dataDir = System.getProperty(DATA_DIR_PROPERTY);
+		if (dataDir != null) {
+			return new File(dataDir);
+		}
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		return new File(loader.getResource(DATA_FOLDER).getFile());
+	}
+
+	/**
+	 * @return the .xls, .xlsx or provider data file with the given name, null if there is none
+	 */
+	static File findDataFile(File dataFolder, String excelName) {
+		for (String extension : new String[] { ".xls", ".xlsx" }) {
+			File excelFile = new File(dataFolder, excelName + extension);
+			if (excelFile.exists()) {
+				return excelFile;
+			}
+		}
+		for (SheetReaderProvider provider : SheetReaders.getProviders()) {
+			for (String extension : provider.getExtensions()) {
+				File dataFile = new File(dataFolder, excelName + extension);
+				if (dataFile.exists()) {
+					return dataFile;
+				}
+			}
+		}
+		return null;
+	}
+
+	static File getExcelFile(String excelName, String sheetName) {
+		if (excelName == null && sheetName == null) {
+			throw new ExcelDetailException("ExcelDetails annotation is missing. It must be called at either Method level or class level. If both available, method level will have the priority over class level.");
+		}
+		File dataFile = findDataFile(getDataFolder(), excelName);
+		if (dataFile != null) {
+			return dataFile;
+		}
+		throw new ExcelDetailException("Excel Details are not correct. Trying to load excel '" + excelName + "' and sheet name '" + sheetName + "'. Either or both of which are not available/wrong.");
+	}
+
+}
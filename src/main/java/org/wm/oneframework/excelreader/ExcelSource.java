@@ -0,0 +1,36 @@
+package org.wm.oneframework.excelreader;
+
+/**
+ * Resolved {@link org.wm.oneframework.annotation.ExcelDetails} of a test class or method: the excel and sheet to read
+ * the data from(defaults already applied) and the row filter.
+ */
+public final class ExcelSource {
+
+	private final String excelName;
+	private final String sheetName;
+	private final String filter;
+
+	public ExcelSource(String excelName, String sheetName, String filter) {
+		this.excelName = excelName;
+		this.sheetName = sheetName;
+		this.filter = filter;
+	}
+
+	public String getExcelName() {
+		return excelName;
+	}
+
+	public String getSheetName() {
+		return sheetName;
+	}
+
+	public String getFilter() {
+		return filter;
+	}
+
+	@Override
+	public String toString() {
+		return excelName + "/" + sheetName + (filter.isEmpty() ? "" : " [" + filter + "]");
+	}
+
+}
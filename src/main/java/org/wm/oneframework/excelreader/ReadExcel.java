@@ -1,136 +1,193 @@
 package org.wm.oneframework.excelreader;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.logging.Logger;
-
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.DataFormatter;
-import org.apache.poi.ss.usermodel.FormulaEvaluator;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.util.IOUtils;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import java.util.function.Predicate;
+
 import org.wm.oneframework.exception.ExcelDetailException;
 
+/**
+ * Reads test data from the workbooks, or csv/tsv files, in the 'data' folder. Every call works on its own reader, so data providers can
+ * read any number of sheets from parallel threads.
+ */
 public class ReadExcel {
 
-	private static XSSFSheet xssfSheet;
-	private static FileInputStream fis;
-	private static DataFormatter dataFormatter = new DataFormatter();
-	private static Logger logger = Logger.getLogger(ReadExcel.class.getName());
+	private static final String STREAMING_PROPERTY = "excel.streaming";
 
 	private ReadExcel() {
 	}
 
-	private static void setup(String excelName, String sheetName) throws IOException {
-
-		if (excelName == null && sheetName == null) {
-			throw new ExcelDetailException("ExcelDetails annotation is missing. It must be called at either Method level or class level. If both available, method level will have the priority over class level.");
+	/**
+	 * Workbooks are streamed(HSSF event API for .xls, XSSF event model for .xlsx) unless streaming is switched off with
+	 * -Dexcel.streaming=false, in which case they are loaded through the POI user model.
+	 */
+	private static boolean isStreamingEnabled() {
+		return Boolean.parseBoolean(System.getProperty(STREAMING_PROPERTY, "true"));
+	}
 
+	static SheetReader getSheetReader(File excelFile) throws IOException {
+		if (isStreamingEnabled() || SheetReaders.providerFor(excelFile) != null) {
+			return SheetReaders.streamingReader(excelFile);
 		}
-		ClassLoader loader = Thread.currentThread().getContextClassLoader();
-		File folderPath = new File(loader.getResource("./data").getFile());
-		File xlsFile = new File(folderPath + File.separator + excelName + ".xls");
-		File xlsxFile = new File(folderPath + File.separator + excelName + ".xlsx");
-		if (xlsFile.exists()) {
-			fis = new FileInputStream(xlsFile);
-		} else if (xlsxFile.exists()) {
-			fis = new FileInputStream(xlsxFile);
-		} else {
-			throw new ExcelDetailException("Excel Details are not correct. Trying to load excel '" + excelName + "' and sheet name '" + sheetName + "'. Either or both of which are not available/wrong.");
-		}
-		XSSFWorkbook xssfWorkbook = new XSSFWorkbook(fis);
-		xssfSheet = xssfWorkbook.getSheet(sheetName);
-		if (xssfSheet == null) {
-			xssfWorkbook.close();
-			throw new ExcelDetailException("Excel Sheet name is not correct. Trying to load sheet '" + sheetName + "' from excel '" + excelName + "', which looks like not available.");
-		}
-		xssfWorkbook.close();
+		return new WorkbookSheetReader();
 	}
 
 	public static Object[][] getData(String excelName, String sheetName) {
-		List<Object[]> results = new ArrayList<>();
-		try {
-			setup(excelName, sheetName);
-			int numRows = xssfSheet.getLastRowNum();
-			for (int i = 1; i <= numRows; i++) {
-				Map<String, String> inputValues = getMapDataFromRow(xssfSheet, i);
-				results.add(new Object[] { inputValues });
+		return getData(excelName, sheetName, null);
+	}
+
+	/**
+	 * It will return the rows of the sheet matching the given {@link RowFilter} expression. The filter is tested on the
+	 * cached values of a row, so rows which don't match are never turned into maps.
+	 *
+	 * @param excelName
+	 * @param sheetName
+	 * @param filter
+	 *            filter expression, null or empty for every row
+	 * @return Object[][]
+	 */
+	public static Object[][] getData(String excelName, String sheetName, String filter) {
+		SheetData sheetData = getSheetData(excelName, sheetName);
+		return toData(sheetData, getMatchingRows(sheetData, filter));
+	}
+
+	/**
+	 * Variant of {@link #getData(String, String, String)} returning only the matching rows of the given shard. See
+	 * {@link ShardSpec}.
+	 *
+	 * @param excelName
+	 * @param sheetName
+	 * @param filter
+	 *            filter expression, null or empty for every row
+	 * @param shard
+	 * @return Object[][]
+	 */
+	public static Object[][] getData(String excelName, String sheetName, String filter, ShardSpec shard) {
+		SheetData sheetData = getSheetData(excelName, sheetName);
+		return toData(sheetData, shard.select(sheetData, getMatchingRows(sheetData, filter)));
+	}
+
+	private static int[] getMatchingRows(SheetData sheetData, String filter) {
+		RowFilter rowFilter = RowFilter.compile(filter);
+		int[] rowIndexes = new int[sheetData.size()];
+		int matchCount = 0;
+		Predicate<String[]> predicate = rowFilter.acceptsAll() ? null : rowFilter.bind(sheetData.getSchema());
+		for (int i = 0; i < sheetData.size(); i++) {
+			if (predicate == null || predicate.test(sheetData.getRow(i))) {
+				rowIndexes[matchCount++] = i;
 			}
-		} catch (IOException e) {
-			logger.warning(e.getMessage());
 		}
+		return matchCount == rowIndexes.length ? rowIndexes : Arrays.copyOf(rowIndexes, matchCount);
+	}
+
+	private static Object[][] toData(SheetData sheetData, int[] rowIndexes) {
+		Object[][] results = new Object[rowIndexes.length][];
+		for (int i = 0; i < rowIndexes.length; i++) {
+			results[i] = new Object[] { sheetData.getRowAsMap(rowIndexes[i]) };
+		}
+		return results;
+	}
 
-		finally {
-			IOUtils.closeQuietly(fis);
+	/**
+	 * Lazy variant of {@link #getData(String, String)} for huge sheets. Rows are streamed while the
+	 * data provider is consumed and are neither cached nor kept in memory once consumed.
+	 *
+	 * @param excelName
+	 * @param sheetName
+	 * @return Iterator
+	 */
+	public static Iterator<Object[]> getDataIterator(String excelName, String sheetName) {
+		return getDataIterator(excelName, sheetName, null);
+	}
+
+	/**
+	 * Lazy variant of {@link #getData(String, String, String)}. When streaming, the filter is tested while the sheet is
+	 * parsed and rows which don't match are dropped before they are queued.
+	 *
+	 * @param excelName
+	 * @param sheetName
+	 * @param filter
+	 *            filter expression, null or empty for every row
+	 * @return Iterator
+	 */
+	public static Iterator<Object[]> getDataIterator(String excelName, String sheetName, String filter) {
+		File excelFile = ExcelFiles.getExcelFile(excelName, sheetName);
+		RowFilter rowFilter = RowFilter.compile(filter);
+		if (isStreamingEnabled() || SheetReaders.providerFor(excelFile) != null) {
+			return new StreamingRowIterator(excelFile, sheetName, rowFilter);
 		}
-		return results.toArray(new Object[0][]);
+		return Arrays.asList(getData(excelName, sheetName, filter)).iterator();
 	}
 
 	public static List<Map<String, String>> readData(String excelName, String sheetName) {
-		List<Map<String, String>> excelData = new ArrayList<>();
-		try {
-			setup(excelName, sheetName);
-			int numRows = xssfSheet.getLastRowNum();
-			for (int i = 1; i <= numRows; i++) {
-				Map<String, String> inputValues = getMapDataFromRow(xssfSheet, i);
-				excelData.add(inputValues);
-			}
-		} catch (IOException e) {
-			logger.warning(e.getMessage());
-		} finally {
-			IOUtils.closeQuietly(fis);
+		return getSheetData(excelName, sheetName).getRowsAsMaps();
+	}
+
+	/**
+	 * @param excelName
+	 * @param sheetName
+	 * @param filter
+	 *            filter expression, null or empty for every row
+	 * @return the rows of the sheet matching the {@link RowFilter} expression
+	 */
+	public static List<Map<String, String>> readData(String excelName, String sheetName, String filter) {
+		SheetData sheetData = getSheetData(excelName, sheetName);
+		int[] rowIndexes = getMatchingRows(sheetData, filter);
+		List<Map<String, String>> excelData = new ArrayList<>(rowIndexes.length);
+		for (int rowIndex : rowIndexes) {
+			excelData.add(sheetData.getRowAsMap(rowIndex));
 		}
 		return excelData;
 	}
 
-	private static Map<String, String> getMapDataFromRow(Sheet sheet, int rowIndex) {
-		Map<String, String> results = new LinkedHashMap<>();
-		String[] columnHeaders = getDataFromRow(sheet, 0);
-		String[] valuesFromRow = getDataFromRow(sheet, rowIndex);
-		for (int i = 0; i < columnHeaders.length; i++) {
-			if (i >= valuesFromRow.length) {
-				results.put(columnHeaders[i], "");
-			} else {
-				results.put(columnHeaders[i], valuesFromRow[i]);
-			}
-		}
-		return results;
+	/**
+	 * @return the folder the workbooks are read from
+	 */
+	public static File getDataFolder() {
+		return ExcelFiles.getDataFolder();
 	}
 
-	private static String[] getDataFromRow(Sheet sheet, int rowIndex) {
-		FormulaEvaluator formulaEvaluator = sheet.getWorkbook().getCreationHelper().createFormulaEvaluator();
-		Row row = sheet.getRow(rowIndex);
-		short numCells = row.getLastCellNum();
-		String[] result = new String[numCells];
-		for (int i = 0; i < numCells; i++) {
-			result[i] = getValueAsString(row.getCell(i), formulaEvaluator);
-		}
-		return result;
-	}
-
-	private static String getValueAsString(Cell cell, FormulaEvaluator formulaEvaluator) {
-		if (cell != null) {
-			CellType cellType = cell.getCellTypeEnum();
-			if (cellType.equals(CellType.BOOLEAN)) {
-				return String.valueOf(cell.getBooleanCellValue());
-			} else if (cellType.equals(CellType.NUMERIC)) {
-				return dataFormatter.formatCellValue(cell);
-			} else if (cellType.equals(CellType.STRING)) {
-				return cell.getRichStringCellValue().getString();
-			} else if (cellType.equals(CellType.FORMULA)) {
-				return formulaEvaluator.evaluate(cell).getStringValue();
+	/**
+	 * Parses the cached sheets of a changed workbook(or csv/tsv file) again, see
+	 * {@link SheetCache#refresh(File, java.util.function.Function)}.
+	 *
+	 * @param changedFile
+	 */
+	public static void refresh(File changedFile) {
+		SheetCache.refresh(changedFile, sheetName -> loadSheetData(changedFile, sheetName));
+	}
+
+	static SheetData getSheetData(String excelName, String sheetName) {
+		File excelFile = ExcelFiles.getExcelFile(excelName, sheetName);
+		return SheetCache.get(excelFile, sheetName, () -> loadSheetData(excelFile, sheetName));
+	}
+
+	private static SheetData loadSheetData(File excelFile, String sheetName) {
+		try {
+			SheetReader sheetReader = getSheetReader(excelFile);
+			String readerName = sheetReader.getClass().getName();
+			File snapshotFile = SheetSnapshot.isEnabled() ? SheetSnapshot.getSnapshotFile(excelFile, sheetName) : null;
+			if (snapshotFile != null) {
+				SheetData snapshot = SheetSnapshot.readIfCurrent(snapshotFile, excelFile, readerName);
+				if (snapshot != null) {
+					return snapshot;
+				}
 			}
+			SheetDataCollector collector = new SheetDataCollector();
+			sheetReader.read(excelFile, sheetName, collector);
+			SheetData sheetData = collector.toSheetData();
+			if (snapshotFile != null) {
+				SheetSnapshot.write(snapshotFile, excelFile, readerName, sheetData);
+			}
+			return sheetData;
+		} catch (IOException e) {
+			throw new ExcelDetailException("Not able to read sheet '" + sheetName + "' of '" + excelFile.getName() + "': " + e.getMessage(), e);
 		}
-		return "";
 	}
 
 }
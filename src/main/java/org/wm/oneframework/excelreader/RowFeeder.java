@@ -0,0 +1,164 @@
+package org.wm.oneframework.excelreader;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands the rows of a sheet to load test threads(e.g. JMeter samplers) one row per call, without locks. The rows are
+ * preloaded into a ring buffer and every call only advances an atomic cursor, so any number of threads can share a
+ * feeder.
+ * <ul>
+ * <li>{@link Mode#SEQUENTIAL}: the threads share one cursor, rows are handed out in sheet order and each row goes to
+ * exactly one call per pass over the sheet.</li>
+ * <li>{@link Mode#RANDOM}: every call gets a random row.</li>
+ * <li>{@link Mode#PER_THREAD}: the rows are split between the given number of threads, every thread takes a slot with
+ * its first call and gets the rows slot, slot + threads, slot + 2 * threads, ... in order through its own cursor. A row
+ * only ever goes to one thread, e.g. one test account per JMeter user.</li>
+ * </ul>
+ * At the end of the rows(of its share for {@link Mode#PER_THREAD}) the feeder either starts over({@link EndOfData#RECYCLE})
+ * or returns null from then on({@link EndOfData#STOP}). A random feeder which stops hands out as many rows as the sheet
+ * has.
+ */
+public final class RowFeeder {
+
+	public enum Mode {
+		SEQUENTIAL, RANDOM, PER_THREAD
+	}
+
+	public enum EndOfData {
+		RECYCLE, STOP
+	}
+
+	private final Map<String, String>[] rows;
+	private final Mode mode;
+	private final boolean recycle;
+	private final int threads;
+	private final AtomicLong cursor = new AtomicLong();
+	private final AtomicInteger nextSlot = new AtomicInteger();
+	private final ThreadLocal<long[]> threadCursor = ThreadLocal.withInitial(this::takeSlot);
+
+	/**
+	 * Rows are wrapped read only, they are shared by all the threads of the feeder. {@link Mode#PER_THREAD} needs the
+	 * number of threads, see {@link #RowFeeder(List, Mode, EndOfData, int)}.
+	 */
+	public RowFeeder(List<? extends Map<String, String>> rows, Mode mode, EndOfData endOfData) {
+		this(rows, mode, endOfData, 0);
+	}
+
+	/**
+	 * @param rows
+	 * @param mode
+	 * @param endOfData
+	 * @param threads
+	 *            number of threads sharing the feeder, {@link Mode#PER_THREAD} splits the rows between them
+	 */
+	@SuppressWarnings("unchecked")
+	public RowFeeder(List<? extends Map<String, String>> rows, Mode mode, EndOfData endOfData, int threads) {
+		if (mode == Mode.PER_THREAD && threads < 1) {
+			throw new IllegalArgumentException("A per thread feeder needs the number of threads sharing it, got " + threads + ".");
+		}
+		this.rows = new Map[rows.size()];
+		for (int i = 0; i < this.rows.length; i++) {
+			this.rows[i] = Collections.unmodifiableMap(rows.get(i));
+		}
+		this.mode = mode;
+		this.recycle = endOfData == EndOfData.RECYCLE;
+		this.threads = threads;
+	}
+
+	/**
+	 * Feeder over the rows of a sheet, read through the sheet cache.
+	 *
+	 * @param excelName
+	 * @param sheetName
+	 * @param mode
+	 * @param endOfData
+	 * @return RowFeeder
+	 */
+	public static RowFeeder forSheet(String excelName, String sheetName, Mode mode, EndOfData endOfData) {
+		return forSheet(excelName, sheetName, null, mode, endOfData);
+	}
+
+	/**
+	 * Feeder over the rows of a sheet matching the given {@link RowFilter} expression.
+	 */
+	public static RowFeeder forSheet(String excelName, String sheetName, String filter, Mode mode, EndOfData endOfData) {
+		return new RowFeeder(ReadExcel.readData(excelName, sheetName, filter), mode, endOfData);
+	}
+
+	/**
+	 * Feeder over the rows of a sheet matching the given {@link RowFilter} expression, shared by the given number of
+	 * threads.
+	 */
+	public static RowFeeder forSheet(String excelName, String sheetName, String filter, Mode mode, EndOfData endOfData, int threads) {
+		return new RowFeeder(ReadExcel.readData(excelName, sheetName, filter), mode, endOfData, threads);
+	}
+
+	/**
+	 * It will return the next row for the calling thread, or null once the rows are exhausted and the feeder doesn't
+	 * recycle. Rows are shared and read only.
+	 *
+	 * @return Map
+	 */
+	public Map<String, String> next() {
+		if (rows.length == 0) {
+			return null;
+		}
+		if (mode == Mode.PER_THREAD) {
+			return nextOfThread();
+		}
+		long position = cursor.getAndIncrement();
+		if (position >= rows.length) {
+			if (!recycle) {
+				return null;
+			}
+			position %= rows.length;
+		}
+		if (mode == Mode.RANDOM) {
+			return rows[ThreadLocalRandom.current().nextInt(rows.length)];
+		}
+		return rows[(int) position];
+	}
+
+	/**
+	 * The thread cursor holds the slot of the thread and the number of rows it has taken.
+	 */
+	private Map<String, String> nextOfThread() {
+		long[] ownCursor = threadCursor.get();
+		int slot = (int) ownCursor[0];
+		long share = (rows.length - slot + threads - 1) / threads;
+		long position = ownCursor[1]++;
+		if (position >= share) {
+			if (!recycle || share == 0) {
+				return null;
+			}
+			position %= share;
+		}
+		return rows[(int) (slot + position * threads)];
+	}
+
+	private long[] takeSlot() {
+		int slot = nextSlot.getAndIncrement();
+		if (slot >= threads) {
+			throw new IllegalStateException("The feeder is shared by " + threads + " threads, " + Thread.currentThread().getName() + " is one too many.");
+		}
+		return new long[] { slot, 0 };
+	}
+
+	public int size() {
+		return rows.length;
+	}
+
+	/**
+	 * Starts the shared cursor over from the first row. The cursors and slots of a {@link Mode#PER_THREAD} feeder aren't
+	 * reset.
+	 */
+	public void reset() {
+		cursor.set(0);
+	}
+
+}
@@ -0,0 +1,325 @@
+package org.wm.oneframework.excelreader;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.wm.oneframework.exception.ExcelDetailException;
+
+/**
+ * Row filter of {@link org.wm.oneframework.annotation.ExcelDetails#filter()}, e.g.
+ * {@code Run == 'Y' && Env == 'qa2' && Priority <= 2}.
+ * <p>
+ * Comparisons(==, !=, <, <=, >, >=) are made between a column and a 'quoted' text or a number, or between two
+ * columns. Values are compared as numbers when both sides are numbers, as text otherwise. Comparisons can be combined
+ * with &&, || and !, and grouped with parentheses. Column names are bare words(letters, digits, _ and .), names with
+ * other characters are written in backticks, e.g. {@code `Test Case` != ''}.
+ * <p>
+ * An expression is parsed once and cached. It is then bound to the header row of a sheet, which resolves every column
+ * to its index, so testing a row is a plain array lookup per column.
+ */
+public final class RowFilter {
+
+	private static final RowFilter ACCEPT_ALL = new RowFilter("", schema -> row -> true);
+	private static final Map<String, RowFilter> compiled = new ConcurrentHashMap<>();
+
+	private final String expression;
+	private final Condition condition;
+
+	private RowFilter(String expression, Condition condition) {
+		this.expression = expression;
+		this.condition = condition;
+	}
+
+	/**
+	 * @param expression
+	 *            filter expression, null or blank to accept every row
+	 * @return RowFilter
+	 */
+	public static RowFilter compile(String expression) {
+		if (expression == null || expression.trim().isEmpty()) {
+			return ACCEPT_ALL;
+		}
+		return compiled.computeIfAbsent(expression, e -> new RowFilter(e, new Parser(e).parse()));
+	}
+
+	public boolean acceptsAll() {
+		return this == ACCEPT_ALL;
+	}
+
+	/**
+	 * It will return the predicate testing the values of a row(as normalized by {@link SheetSchema#toValues(String[])})
+	 * of a sheet with the given header row.
+	 *
+	 * @param schema
+	 * @return Predicate
+	 */
+	public Predicate<String[]> bind(SheetSchema schema) {
+		return condition.bind(schema);
+	}
+
+	@Override
+	public String toString() {
+		return expression;
+	}
+
+	private interface Condition {
+
+		Predicate<String[]> bind(SheetSchema schema);
+	}
+
+	private interface Operand {
+
+		/**
+		 * @return function returning the value of the operand for a row
+		 */
+		ValueReader bind(SheetSchema schema);
+	}
+
+	private interface ValueReader {
+
+		String read(String[] row);
+	}
+
+	private enum Operator {
+
+		EQ("=="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+		private final String symbol;
+
+		Operator(String symbol) {
+			this.symbol = symbol;
+		}
+
+		boolean test(int comparison) {
+			switch (this) {
+			case EQ:
+				return comparison == 0;
+			case NE:
+				return comparison != 0;
+			case LT:
+				return comparison < 0;
+			case LE:
+				return comparison <= 0;
+			case GT:
+				return comparison > 0;
+			default:
+				return comparison >= 0;
+			}
+		}
+	}
+
+	private static int compare(String left, String right) {
+		BigDecimal leftNumber = toNumber(left);
+		BigDecimal rightNumber = leftNumber == null ? null : toNumber(right);
+		if (rightNumber != null) {
+			return leftNumber.compareTo(rightNumber);
+		}
+		return left.compareTo(right);
+	}
+
+	private static BigDecimal toNumber(String value) {
+		if (value.isEmpty()) {
+			return null;
+		}
+		char first = value.charAt(0);
+		if (!Character.isDigit(first) && first != '-' && first != '+' && first != '.') {
+			return null;
+		}
+		try {
+			return new BigDecimal(value);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Recursive descent parser of
+	 *
+	 * <pre>
+	 * or         := and ('||' and)*
+	 * and        := unary ('&&' unary)*
+	 * unary      := '!' unary | '(' or ')' | comparison
+	 * comparison := operand ('==' | '!=' | '<' | '<=' | '>' | '>=') operand
+	 * operand    := column | `column` | 'text' | number
+	 * </pre>
+	 */
+	private static final class Parser {
+
+		private final String expression;
+		private final List<String> tokens = new ArrayList<>();
+		private int position;
+
+		Parser(String expression) {
+			this.expression = expression;
+			tokenize();
+		}
+
+		Condition parse() {
+			Condition condition = parseOr();
+			if (position < tokens.size()) {
+				throw error("unexpected '" + tokens.get(position) + "'");
+			}
+			return condition;
+		}
+
+		private Condition parseOr() {
+			Condition left = parseAnd();
+			while (accept("||")) {
+				Condition first = left;
+				Condition second = parseAnd();
+				left = schema -> first.bind(schema).or(second.bind(schema));
+			}
+			return left;
+		}
+
+		private Condition parseAnd() {
+			Condition left = parseUnary();
+			while (accept("&&")) {
+				Condition first = left;
+				Condition second = parseUnary();
+				left = schema -> first.bind(schema).and(second.bind(schema));
+			}
+			return left;
+		}
+
+		private Condition parseUnary() {
+			if (accept("!")) {
+				Condition negated = parseUnary();
+				return schema -> negated.bind(schema).negate();
+			}
+			if (accept("(")) {
+				Condition grouped = parseOr();
+				expect(")");
+				return grouped;
+			}
+			Operand left = parseOperand();
+			Operator operator = parseOperator();
+			Operand right = parseOperand();
+			return schema -> {
+				ValueReader leftValue = left.bind(schema);
+				ValueReader rightValue = right.bind(schema);
+				return row -> operator.test(compare(leftValue.read(row), rightValue.read(row)));
+			};
+		}
+
+		private Operator parseOperator() {
+			String token = next("a comparison operator");
+			for (Operator operator : Operator.values()) {
+				if (operator.symbol.equals(token)) {
+					return operator;
+				}
+			}
+			throw error("expected a comparison operator but found '" + token + "'");
+		}
+
+		private Operand parseOperand() {
+			String token = next("a column, text or number");
+			if (token.startsWith("'")) {
+				String text = token.substring(1);
+				return schema -> row -> text;
+			}
+			if (token.startsWith("`")) {
+				return column(token.substring(1));
+			}
+			if (toNumber(token) != null) {
+				return schema -> row -> token;
+			}
+			if (!Character.isLetterOrDigit(token.charAt(0)) && token.charAt(0) != '_') {
+				throw error("expected a column, text or number but found '" + token + "'");
+			}
+			return column(token);
+		}
+
+		private Operand column(String column) {
+			return schema -> {
+				int columnIndex = schema.indexOf(column);
+				if (columnIndex < 0) {
+					throw new ExcelDetailException("Column '" + column + "' of filter '" + expression + "' is not available in the sheet.");
+				}
+				return row -> row[columnIndex];
+			};
+		}
+
+		private boolean accept(String token) {
+			if (position < tokens.size() && tokens.get(position).equals(token)) {
+				position++;
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(String token) {
+			if (!accept(token)) {
+				throw error("expected '" + token + "'");
+			}
+		}
+
+		private String next(String expected) {
+			if (position >= tokens.size()) {
+				throw error("expected " + expected + " at the end");
+			}
+			return tokens.get(position++);
+		}
+
+		/**
+		 * Splits the expression into tokens. Quoted texts and backtick columns are kept as a token starting with their
+		 * opening quote, without the closing one.
+		 */
+		private void tokenize() {
+			int i = 0;
+			while (i < expression.length()) {
+				char c = expression.charAt(i);
+				if (Character.isWhitespace(c)) {
+					i++;
+				} else if (c == '\'' || c == '`') {
+					i = readQuoted(i, c);
+				} else if (expression.startsWith("&&", i) || expression.startsWith("||", i) || expression.startsWith("==", i)
+						|| expression.startsWith("!=", i) || expression.startsWith("<=", i) || expression.startsWith(">=", i)) {
+					tokens.add(expression.substring(i, i + 2));
+					i += 2;
+				} else if ("()!<>".indexOf(c) >= 0) {
+					tokens.add(String.valueOf(c));
+					i++;
+				} else if (Character.isLetterOrDigit(c) || "_.-+".indexOf(c) >= 0) {
+					int start = i;
+					while (i < expression.length() && (Character.isLetterOrDigit(expression.charAt(i)) || "_.-+".indexOf(expression.charAt(i)) >= 0)) {
+						i++;
+					}
+					tokens.add(expression.substring(start, i));
+				} else {
+					throw error("unexpected '" + c + "'");
+				}
+			}
+		}
+
+		/**
+		 * Reads a quoted token, a doubled quote stands for the quote itself.
+		 */
+		private int readQuoted(int start, char quote) {
+			StringBuilder value = new StringBuilder().append(quote);
+			int i = start + 1;
+			while (i < expression.length()) {
+				char c = expression.charAt(i++);
+				if (c != quote) {
+					value.append(c);
+				} else if (i < expression.length() && expression.charAt(i) == quote) {
+					value.append(quote);
+					i++;
+				} else {
+					tokens.add(value.toString());
+					return i;
+				}
+			}
+			throw error("missing closing " + quote);
+		}
+
+		private ExcelDetailException error(String message) {
+			return new ExcelDetailException("Invalid filter '" + expression + "': " + message + ".");
+		}
+	}
+
+}
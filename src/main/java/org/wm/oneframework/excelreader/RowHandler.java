@@ -0,0 +1,16 @@
+package org.wm.oneframework.excelreader;
+
+/**
+ * Callback used by the streaming sheet readers. Rows are pushed in sheet order while the sheet is being parsed. The
+ * first row pushed is the header row.
+ */
+public interface RowHandler {
+
+	/**
+	 * @param rowIndex
+	 *            zero based index of the row in the sheet
+	 * @param values
+	 *            formatted cell values, missing cells are empty strings
+	 */
+	void handleRow(int rowIndex, String[] values);
+}
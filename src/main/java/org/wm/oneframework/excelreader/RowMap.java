@@ -0,0 +1,115 @@
+package org.wm.oneframework.excelreader;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * {@link Map} view of a data row. It only holds the shared {@link SheetSchema} of its sheet and the values of the row,
+ * so it costs one array per row instead of a hash map with an entry per cell. Lookups go through the header index of
+ * the schema.
+ * <p>
+ * The map is copied on first write: put, remove and clear first copy the row into a LinkedHashMap of its own, so a
+ * caller modifying its row never changes the cached values or the rows of other callers. Entries iterated before the
+ * first write are read only.
+ */
+final class RowMap extends AbstractMap<String, String> {
+
+	private final SheetSchema schema;
+	private final String[] values;
+	private Map<String, String> copy;
+
+	RowMap(SheetSchema schema, String[] values) {
+		this.schema = schema;
+		this.values = values;
+	}
+
+	private Map<String, String> writable() {
+		if (copy == null) {
+			copy = schema.putRow(values, new LinkedHashMap<>(schema.getColumnCount() * 2));
+		}
+		return copy;
+	}
+
+	@Override
+	public String get(Object key) {
+		if (copy != null) {
+			return copy.get(key);
+		}
+		if (!(key instanceof String)) {
+			return null;
+		}
+		int columnIndex = schema.indexOf((String) key);
+		return columnIndex < 0 ? null : values[columnIndex];
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (copy != null) {
+			return copy.containsKey(key);
+		}
+		return key instanceof String && schema.indexOf((String) key) >= 0;
+	}
+
+	@Override
+	public int size() {
+		return copy != null ? copy.size() : schema.getKeyCount();
+	}
+
+	@Override
+	public String put(String key, String value) {
+		return writable().put(key, value);
+	}
+
+	@Override
+	public String remove(Object key) {
+		return writable().remove(key);
+	}
+
+	@Override
+	public void clear() {
+		writable().clear();
+	}
+
+	@Override
+	public Set<Map.Entry<String, String>> entrySet() {
+		if (copy != null) {
+			return copy.entrySet();
+		}
+		return new AbstractSet<Map.Entry<String, String>>() {
+
+			@Override
+			public Iterator<Map.Entry<String, String>> iterator() {
+				return new Iterator<Map.Entry<String, String>>() {
+
+					private int keyIndex;
+
+					@Override
+					public boolean hasNext() {
+						return keyIndex < schema.getKeyCount();
+					}
+
+					@Override
+					public Map.Entry<String, String> next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						String key = schema.getKey(keyIndex);
+						String value = values[schema.getKeyColumn(keyIndex++)];
+						return new AbstractMap.SimpleImmutableEntry<>(key, value);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return schema.getKeyCount();
+			}
+		};
+	}
+
+}
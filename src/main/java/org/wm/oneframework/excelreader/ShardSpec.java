@@ -0,0 +1,166 @@
+package org.wm.oneframework.excelreader;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.logging.Logger;
+
+import org.wm.oneframework.configprovider.ConfigProvider;
+import org.wm.oneframework.configprovider.exceptions.PropertyFileNotFoundException;
+import org.wm.oneframework.exception.ExcelDetailException;
+
+/**
+ * Splits the rows of a sheet between the JVMs(forks, agents) running the same data driven tests. Every fork reads the
+ * whole sheet and keeps its own share, the split only depends on the rows, so all the forks agree on it without talking
+ * to each other and every row runs exactly once.
+ * <p>
+ * Rows are dealt round robin, which keeps the shares within one row of each other. When a cost column is given(e.g. the
+ * expected duration of the test), rows are dealt heaviest first to the share with the lowest total cost so far, which
+ * balances the total cost instead of the row count. Empty or non numeric costs count as 1.
+ * <p>
+ * Configured with shard.index(0 based), shard.count and optionally shard.cost.column, read from the system properties
+ * first and from the properties files of {@link ConfigProvider} otherwise.
+ */
+public final class ShardSpec {
+
+	private static final String INDEX_KEY = "shard.index";
+	private static final String COUNT_KEY = "shard.count";
+	private static final String COST_COLUMN_KEY = "shard.cost.column";
+	private static Logger logger = Logger.getLogger(ShardSpec.class.getName());
+
+	private final int index;
+	private final int count;
+	private final String costColumn;
+
+	public ShardSpec(int index, int count, String costColumn) {
+		if (count < 1 || index < 0 || index >= count) {
+			throw new ExcelDetailException("Invalid shard " + index + " of " + count + ". Shard count must be at least 1 and shard index between 0 and count - 1.");
+		}
+		this.index = index;
+		this.count = count;
+		this.costColumn = costColumn == null || costColumn.trim().isEmpty() ? null : costColumn.trim();
+	}
+
+	/**
+	 * @return the shard of this JVM, a single shard holding every row if no shard is configured
+	 */
+	public static ShardSpec current() {
+		String count = getSetting(COUNT_KEY);
+		if (count == null) {
+			return new ShardSpec(0, 1, null);
+		}
+		String index = getSetting(INDEX_KEY);
+		try {
+			return new ShardSpec(index == null ? 0 : Integer.parseInt(index.trim()), Integer.parseInt(count.trim()), getSetting(COST_COLUMN_KEY));
+		} catch (NumberFormatException e) {
+			throw new ExcelDetailException("Invalid shard '" + index + "' of '" + count + "'. Both " + INDEX_KEY + " and " + COUNT_KEY + " must be numbers.", e);
+		}
+	}
+
+	private static String getSetting(String key) {
+		String value = System.getProperty(key);
+		if (value != null) {
+			return value;
+		}
+		try {
+			return ConfigProvider.getAsString(key);
+		} catch (PropertyFileNotFoundException e) {
+			logger.fine(e.getMessage());
+			return null;
+		}
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public String getCostColumn() {
+		return costColumn;
+	}
+
+	public boolean isSharded() {
+		return count > 1;
+	}
+
+	/**
+	 * It will return the rows of this shard, in sheet order.
+	 *
+	 * @param sheetData
+	 * @param rowIndexes
+	 *            candidate rows of the sheet(e.g. the rows matching a filter), in sheet order
+	 * @return the subset of rowIndexes belonging to this shard
+	 */
+	int[] select(SheetData sheetData, int[] rowIndexes) {
+		if (!isSharded()) {
+			return rowIndexes;
+		}
+		int[] shards = costColumn == null ? dealRoundRobin(rowIndexes.length) : dealByCost(sheetData, rowIndexes);
+		int[] selected = new int[rowIndexes.length];
+		int selectedCount = 0;
+		for (int i = 0; i < rowIndexes.length; i++) {
+			if (shards[i] == index) {
+				selected[selectedCount++] = rowIndexes[i];
+			}
+		}
+		return Arrays.copyOf(selected, selectedCount);
+	}
+
+	private int[] dealRoundRobin(int rowCount) {
+		int[] shards = new int[rowCount];
+		for (int i = 0; i < rowCount; i++) {
+			shards[i] = i % count;
+		}
+		return shards;
+	}
+
+	/**
+	 * Longest processing time first: heaviest row first, each to the shard with the lowest total so far(lowest shard on
+	 * ties). Rows of the same cost keep their sheet order, so the result is deterministic.
+	 */
+	private int[] dealByCost(SheetData sheetData, int[] rowIndexes) {
+		int costColumnIndex = sheetData.getSchema().indexOf(costColumn);
+		if (costColumnIndex < 0) {
+			throw new ExcelDetailException("Shard cost column '" + costColumn + "' is not available in the sheet.");
+		}
+		BigDecimal[] costs = new BigDecimal[rowIndexes.length];
+		Integer[] order = new Integer[rowIndexes.length];
+		for (int i = 0; i < rowIndexes.length; i++) {
+			costs[i] = toCost(sheetData.getRow(rowIndexes[i])[costColumnIndex]);
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparing((Integer i) -> costs[i]).reversed().thenComparing(i -> i));
+		BigDecimal[] totals = new BigDecimal[count];
+		Arrays.fill(totals, BigDecimal.ZERO);
+		int[] shards = new int[rowIndexes.length];
+		for (int i : order) {
+			int lightest = 0;
+			for (int shard = 1; shard < count; shard++) {
+				if (totals[shard].compareTo(totals[lightest]) < 0) {
+					lightest = shard;
+				}
+			}
+			shards[i] = lightest;
+			totals[lightest] = totals[lightest].add(costs[i]);
+		}
+		return shards;
+	}
+
+	private static BigDecimal toCost(String value) {
+		try {
+			BigDecimal cost = new BigDecimal(value.trim());
+			return cost.signum() < 0 ? BigDecimal.ZERO : cost;
+		} catch (NumberFormatException e) {
+			return BigDecimal.ONE;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "shard " + index + " of " + count + (costColumn == null ? "" : " weighted by '" + costColumn + "'");
+	}
+
+}
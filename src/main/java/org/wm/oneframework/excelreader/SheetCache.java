@@ -0,0 +1,257 @@
+package org.wm.oneframework.excelreader;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import org.wm.oneframework.exception.ExcelDetailException;
+
+/**
+ * Process wide cache of parsed sheets shared by all the data providers. Entries are keyed by workbook and sheet name
+ * and are only served while the last modified time and size of the workbook are unchanged, so edited files are parsed
+ * again on the next lookup. The cache is LRU bounded, size can be changed with -Dexcel.cache.size (default 16 sheets).
+ * Concurrent lookups of a sheet that is still being parsed wait for that parse instead of starting another one. A
+ * parse failing is rethrown to the lookups waiting for it and nothing is cached, the next lookup parses again.
+ */
+public final class SheetCache {
+
+	private static final String CACHE_SIZE_PROPERTY = "excel.cache.size";
+	private static final int DEFAULT_CACHE_SIZE = 16;
+	private static volatile int maxSheets = Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE);
+	private static final Map<String, CachedSheet> sheets = new LinkedHashMap<String, CachedSheet>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CachedSheet> eldest) {
+			return size() > maxSheets;
+		}
+	};
+	private static final ConcurrentMap<String, FutureTask<CachedSheet>> loading = new ConcurrentHashMap<>();
+	private static final AtomicLong hits = new AtomicLong();
+	private static final AtomicLong misses = new AtomicLong();
+	private static final AtomicLong waits = new AtomicLong();
+	private static Logger logger = Logger.getLogger(SheetCache.class.getName());
+	private static volatile Executor refreshExecutor;
+
+	private SheetCache() {
+	}
+
+	/**
+	 * It will return the cached sheet if the workbook didn't change since it was parsed, otherwise the sheet is parsed
+	 * with the given loader and cached.
+	 *
+	 * @param excelFile
+	 * @param sheetName
+	 * @param loader
+	 * @return SheetData
+	 */
+	public static SheetData get(File excelFile, String sheetName, Supplier<SheetData> loader) {
+		String key = excelFile.getAbsolutePath() + "#" + sheetName;
+		long lastModified = excelFile.lastModified();
+		long length = excelFile.length();
+		CachedSheet cached;
+		synchronized (sheets) {
+			cached = sheets.get(key);
+			if (cached != null && cached.isCurrent(lastModified, length)) {
+				hits.incrementAndGet();
+				return cached.sheetData;
+			}
+		}
+		if (cached != null && refreshExecutor != null) {
+			hits.incrementAndGet();
+			refreshInBackground(key, lastModified, length, loader);
+			return cached.sheetData;
+		}
+		String loadingKey = key + "@" + lastModified + ":" + length;
+		FutureTask<CachedSheet> task = new FutureTask<>(() -> new CachedSheet(lastModified, length, loader.get()));
+		FutureTask<CachedSheet> inFlight = loading.putIfAbsent(loadingKey, task);
+		if (inFlight != null) {
+			waits.incrementAndGet();
+			return await(inFlight).sheetData;
+		}
+		misses.incrementAndGet();
+		try {
+			task.run();
+			CachedSheet loaded = await(task);
+			synchronized (sheets) {
+				sheets.put(key, loaded);
+			}
+			return loaded.sheetData;
+		} finally {
+			loading.remove(loadingKey, task);
+		}
+	}
+
+	/**
+	 * Switches on background refresh: a lookup of a sheet whose workbook changed returns the sheet as it was and parses
+	 * the new version on the given executor, which replaces the cached sheet once it is completely parsed. Lookups
+	 * never wait for a changed workbook then, only for workbooks never parsed before. null switches back to parsing
+	 * changed workbooks on the looking up thread.
+	 *
+	 * @param executor
+	 */
+	public static void setRefreshExecutor(Executor executor) {
+		refreshExecutor = executor;
+	}
+
+	/**
+	 * Parses the cached sheets of a changed workbook again, in the background if a refresh executor is set. Sheets of
+	 * the workbook which aren't cached are left alone, they are parsed on their first lookup.
+	 *
+	 * @param excelFile
+	 * @param loader
+	 *            parses a sheet of the workbook, by sheet name
+	 */
+	public static void refresh(File excelFile, Function<String, SheetData> loader) {
+		String prefix = excelFile.getAbsolutePath() + "#";
+		List<String> keys = new ArrayList<>();
+		synchronized (sheets) {
+			for (Map.Entry<String, CachedSheet> entry : sheets.entrySet()) {
+				if (entry.getKey().startsWith(prefix) && !entry.getValue().isCurrent(excelFile.lastModified(), excelFile.length())) {
+					keys.add(entry.getKey());
+				}
+			}
+		}
+		for (String key : keys) {
+			String sheetName = key.substring(prefix.length());
+			refreshInBackground(key, excelFile.lastModified(), excelFile.length(), () -> loader.apply(sheetName));
+		}
+	}
+
+	private static void refreshInBackground(String key, long lastModified, long length, Supplier<SheetData> loader) {
+		String loadingKey = key + "@" + lastModified + ":" + length;
+		FutureTask<CachedSheet> task = new FutureTask<>(() -> new CachedSheet(lastModified, length, loader.get()));
+		if (loading.putIfAbsent(loadingKey, task) != null) {
+			return;
+		}
+		misses.incrementAndGet();
+		Runnable refresh = () -> {
+			try {
+				task.run();
+				CachedSheet loaded = await(task);
+				synchronized (sheets) {
+					sheets.put(key, loaded);
+				}
+			} catch (RuntimeException e) {
+				logger.warning("Keeping the previous version of '" + key + "', reload failed: " + e.getMessage());
+			} finally {
+				loading.remove(loadingKey, task);
+			}
+		};
+		Executor executor = refreshExecutor;
+		if (executor == null) {
+			refresh.run();
+		} else {
+			executor.execute(refresh);
+		}
+	}
+
+	private static CachedSheet await(FutureTask<CachedSheet> task) {
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ExcelDetailException("Interrupted while waiting for the excel sheet to be loaded.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new ExcelDetailException(e.getCause());
+		}
+	}
+
+	/**
+	 * Grows the cache so it can hold at least the given number of sheets, e.g. all the sheets of a suite being
+	 * preloaded. Shrink it back with {@link #resetCapacity()}.
+	 *
+	 * @param sheetCount
+	 */
+	public static void ensureCapacity(int sheetCount) {
+		synchronized (sheets) {
+			if (sheetCount > maxSheets) {
+				maxSheets = sheetCount;
+			}
+		}
+	}
+
+	/**
+	 * Sets the capacity back to -Dexcel.cache.size(default 16 sheets), dropping the least recently used sheets beyond it.
+	 */
+	public static void resetCapacity() {
+		synchronized (sheets) {
+			maxSheets = Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE);
+			Iterator<String> eldest = sheets.keySet().iterator();
+			while (sheets.size() > maxSheets && eldest.hasNext()) {
+				eldest.next();
+				eldest.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return number of lookups served from the cache, stale sheets served during a background refresh included
+	 */
+	public static long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return number of parses started by lookups and refreshes
+	 */
+	public static long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return number of lookups which waited for a parse started by another lookup
+	 */
+	public static long getWaitCount() {
+		return waits.get();
+	}
+
+	public static int size() {
+		synchronized (sheets) {
+			return sheets.size();
+		}
+	}
+
+	public static void clear() {
+		synchronized (sheets) {
+			sheets.clear();
+		}
+	}
+
+	private static final class CachedSheet {
+
+		private final long lastModified;
+		private final long length;
+		private final SheetData sheetData;
+
+		CachedSheet(long lastModified, long length, SheetData sheetData) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.sheetData = sheetData;
+		}
+
+		boolean isCurrent(long lastModified, long length) {
+			return this.lastModified == lastModified && this.length == length;
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+package org.wm.oneframework.excelreader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsed content of a single sheet: the compiled header row and the formatted values of every data row.
+ */
+public final class SheetData {
+
+	private final SheetSchema schema;
+	private final List<String[]> rows;
+
+	public SheetData(SheetSchema schema, List<String[]> rows) {
+		this.schema = schema;
+		this.rows = rows;
+	}
+
+	public SheetSchema getSchema() {
+		return schema;
+	}
+
+	public int size() {
+		return rows.size();
+	}
+
+	String[] getRow(int rowIndex) {
+		return rows.get(rowIndex);
+	}
+
+	/**
+	 * It will return a map of header to value for the given data row. Missing cells are returned as empty strings. The
+	 * map is a view over the cached row, cells are only copied when the caller modifies its map.
+	 *
+	 * @param rowIndex
+	 *            zero based index of the data row(header row excluded)
+	 * @return Map
+	 */
+	public Map<String, String> getRowAsMap(int rowIndex) {
+		return new RowMap(schema, rows.get(rowIndex));
+	}
+
+	public List<Map<String, String>> getRowsAsMaps() {
+		List<Map<String, String>> excelData = new ArrayList<>(rows.size());
+		for (int i = 0; i < rows.size(); i++) {
+			excelData.add(getRowAsMap(i));
+		}
+		return excelData;
+	}
+
+}
@@ -0,0 +1,38 @@
+package org.wm.oneframework.excelreader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link RowHandler} which compiles the first row into the {@link SheetSchema} and collects every following row into a
+ * {@link SheetData}. Repeated cell values of a sheet share a single String instance.
+ */
+class SheetDataCollector implements RowHandler {
+
+	private SheetSchema schema;
+	private final ArrayList<String[]> rows = new ArrayList<>();
+	private final Map<String, String> valuePool = new HashMap<>();
+
+	@Override
+	public void handleRow(int rowIndex, String[] values) {
+		if (schema == null) {
+			schema = new SheetSchema(values);
+		} else {
+			String[] rowValues = schema.toValues(values);
+			for (int i = 0; i < rowValues.length; i++) {
+				String pooled = valuePool.putIfAbsent(rowValues[i], rowValues[i]);
+				if (pooled != null) {
+					rowValues[i] = pooled;
+				}
+			}
+			rows.add(rowValues);
+		}
+	}
+
+	SheetData toSheetData() {
+		rows.trimToSize();
+		return new SheetData(schema == null ? new SheetSchema(null) : schema, rows);
+	}
+
+}
@@ -0,0 +1,76 @@
+package org.wm.oneframework.excelreader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Logger;
+
+/**
+ * Parses a set of sheets in parallel into the {@link SheetCache}, so data providers find them already loaded. A data
+ * provider asking for a sheet which is still being preloaded waits for that parse instead of starting its own. Sheets
+ * which can't be loaded are only logged, the data provider reports the error when it asks for the sheet.
+ */
+public final class SheetPreloader {
+
+	private static Logger logger = Logger.getLogger(SheetPreloader.class.getName());
+
+	private SheetPreloader() {
+	}
+
+	/**
+	 * Starts loading the sheets on the given pool, one task per distinct excel and sheet.
+	 *
+	 * @param excelSources
+	 * @param pool
+	 * @return task completing with the number of sheets loaded, join it to wait for the preload
+	 */
+	public static ForkJoinTask<Integer> preload(Collection<ExcelSource> excelSources, ForkJoinPool pool) {
+		Map<String, ExcelSource> distinctSheets = new LinkedHashMap<>();
+		for (ExcelSource excelSource : excelSources) {
+			distinctSheets.putIfAbsent(excelSource.getExcelName() + "#" + excelSource.getSheetName(), excelSource);
+		}
+		SheetCache.ensureCapacity(distinctSheets.size());
+		return pool.submit(new PreloadTask(new ArrayList<>(distinctSheets.values())));
+	}
+
+	private static final class PreloadTask extends RecursiveTask<Integer> {
+
+		private static final long serialVersionUID = 1L;
+		private final List<ExcelSource> excelSources;
+
+		PreloadTask(List<ExcelSource> excelSources) {
+			this.excelSources = excelSources;
+		}
+
+		@Override
+		protected Integer compute() {
+			if (excelSources.isEmpty()) {
+				return 0;
+			} else if (excelSources.size() == 1) {
+				return load(excelSources.get(0));
+			}
+			int middle = excelSources.size() / 2;
+			PreloadTask second = new PreloadTask(excelSources.subList(middle, excelSources.size()));
+			second.fork();
+			int loaded = new PreloadTask(excelSources.subList(0, middle)).compute();
+			return loaded + second.join();
+		}
+
+		private static int load(ExcelSource excelSource) {
+			try {
+				int rows = ReadExcel.getSheetData(excelSource.getExcelName(), excelSource.getSheetName()).size();
+				logger.fine("Preloaded " + rows + " rows of " + excelSource);
+				return 1;
+			} catch (RuntimeException e) {
+				logger.warning("Unable to preload " + excelSource + ": " + e.getMessage());
+				return 0;
+			}
+		}
+	}
+
+}
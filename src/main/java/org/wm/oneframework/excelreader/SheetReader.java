@@ -0,0 +1,21 @@
+package org.wm.oneframework.excelreader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reads the rows of a single sheet and pushes them to a {@link RowHandler}. Every implementation produces the same
+ * row stream, whatever the format of the file. Readers keep per call state, use one instance per read.
+ */
+public interface SheetReader {
+
+	void read(File excelFile, String sheetName, RowHandler rowHandler) throws IOException;
+
+	/**
+	 * @param excelFile
+	 * @return names of all the sheets of the workbook, in workbook order
+	 * @throws IOException
+	 */
+	List<String> getSheetNames(File excelFile) throws IOException;
+}
@@ -0,0 +1,22 @@
+package org.wm.oneframework.excelreader;
+
+import java.util.List;
+
+/**
+ * Service provider interface for test data sources other than Excel workbooks. When no .xls/.xlsx workbook exists for
+ * an excel name, the data folder is searched for a file with one of the extensions of the providers, in provider
+ * order. CSV and TSV are built in, more providers can be registered in
+ * META-INF/services/org.wm.oneframework.excelreader.SheetReaderProvider.
+ */
+public interface SheetReaderProvider {
+
+	/**
+	 * @return file extensions handled by this provider, including the dot(e.g. ".csv")
+	 */
+	List<String> getExtensions();
+
+	/**
+	 * @return a new reader, readers are used for a single read
+	 */
+	SheetReader createReader();
+}
@@ -0,0 +1,74 @@
+package org.wm.oneframework.excelreader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.wm.oneframework.exception.ExcelDetailException;
+
+/**
+ * Picks the {@link SheetReader} for a data file. Files claimed by a {@link SheetReaderProvider} through their extension
+ * go to that provider. For workbooks the format is detected from the content of the file rather than its extension:
+ * OLE2(.xls) workbooks go to the HSSF event reader and OOXML(.xlsx) workbooks to the XSSF streaming reader.
+ */
+final class SheetReaders {
+
+	private static final List<SheetReaderProvider> providers = loadProviders();
+
+	private SheetReaders() {
+	}
+
+	private static List<SheetReaderProvider> loadProviders() {
+		List<SheetReaderProvider> loaded = new ArrayList<>();
+		loaded.add(new DelimitedTextProvider(".csv", ','));
+		loaded.add(new DelimitedTextProvider(".tsv", '\t'));
+		for (SheetReaderProvider provider : ServiceLoader.load(SheetReaderProvider.class)) {
+			loaded.add(provider);
+		}
+		return Collections.unmodifiableList(loaded);
+	}
+
+	static List<SheetReaderProvider> getProviders() {
+		return providers;
+	}
+
+	/**
+	 * @return the provider handling the extension of the file, or null for workbooks
+	 */
+	static SheetReaderProvider providerFor(File dataFile) {
+		String fileName = dataFile.getName().toLowerCase(Locale.ROOT);
+		for (SheetReaderProvider provider : providers) {
+			for (String extension : provider.getExtensions()) {
+				if (fileName.endsWith(extension.toLowerCase(Locale.ROOT))) {
+					return provider;
+				}
+			}
+		}
+		return null;
+	}
+
+	static SheetReader streamingReader(File excelFile) throws IOException {
+		SheetReaderProvider provider = providerFor(excelFile);
+		if (provider != null) {
+			return provider.createReader();
+		}
+		FileMagic fileMagic;
+		try (InputStream is = FileMagic.prepareToCheckMagic(new FileInputStream(excelFile))) {
+			fileMagic = FileMagic.valueOf(is);
+		}
+		if (fileMagic == FileMagic.OLE2) {
+			return new XlsSheetReader();
+		} else if (fileMagic == FileMagic.OOXML) {
+			return new XlsxSheetReader();
+		}
+		throw new ExcelDetailException("'" + excelFile.getName() + "' is neither an .xls nor an .xlsx workbook.");
+	}
+
+}
@@ -0,0 +1,102 @@
+package org.wm.oneframework.excelreader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Header row of a sheet, compiled once per sheet. Header names are interned and indexed by column, so rows only need
+ * to carry their values. A repeated header keeps its first position and the value of its last column, the same as
+ * putting the row into a LinkedHashMap.
+ */
+public final class SheetSchema {
+
+	private final String[] headers;
+	private final Map<String, Integer> columnIndexes;
+	private final String[] keys;
+	private final int[] keyColumns;
+
+	public SheetSchema(String[] headerRow) {
+		headers = new String[headerRow == null ? 0 : headerRow.length];
+		columnIndexes = new HashMap<>(headers.length * 2);
+		List<String> distinctHeaders = new ArrayList<>(headers.length);
+		for (int i = 0; i < headers.length; i++) {
+			headers[i] = headerRow[i].intern();
+			if (columnIndexes.put(headers[i], i) == null) {
+				distinctHeaders.add(headers[i]);
+			}
+		}
+		keys = distinctHeaders.toArray(new String[0]);
+		keyColumns = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			keyColumns[i] = columnIndexes.get(keys[i]);
+		}
+	}
+
+	public int getColumnCount() {
+		return headers.length;
+	}
+
+	public String getHeader(int columnIndex) {
+		return headers[columnIndex];
+	}
+
+	/**
+	 * @param header
+	 * @return index of the column with the given header(the last one if the header is repeated), -1 if there is no such column
+	 */
+	public int indexOf(String header) {
+		Integer columnIndex = columnIndexes.get(header);
+		return columnIndex == null ? -1 : columnIndex;
+	}
+
+	int getKeyCount() {
+		return keys.length;
+	}
+
+	String getKey(int keyIndex) {
+		return keys[keyIndex];
+	}
+
+	int getKeyColumn(int keyIndex) {
+		return keyColumns[keyIndex];
+	}
+
+	/**
+	 * It will return the values of a row with exactly one value per header column. Missing cells become empty strings
+	 * and cells beyond the last header are dropped.
+	 *
+	 * @param valuesFromRow
+	 * @return String[]
+	 */
+	public String[] toValues(String[] valuesFromRow) {
+		if (valuesFromRow.length == headers.length) {
+			return valuesFromRow;
+		}
+		String[] values = new String[headers.length];
+		for (int i = 0; i < headers.length; i++) {
+			values[i] = i < valuesFromRow.length ? valuesFromRow[i] : "";
+		}
+		return values;
+	}
+
+	/**
+	 * Copies the values of a row into the given map, keyed by header. Missing cells are put as empty strings.
+	 *
+	 * @param valuesFromRow
+	 * @param results
+	 * @return the given map
+	 */
+	public <M extends Map<String, String>> M putRow(String[] valuesFromRow, M results) {
+		for (int i = 0; i < headers.length; i++) {
+			if (i >= valuesFromRow.length) {
+				results.put(headers[i], "");
+			} else {
+				results.put(headers[i], valuesFromRow[i]);
+			}
+		}
+		return results;
+	}
+
+}
@@ -0,0 +1,239 @@
+package org.wm.oneframework.excelreader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary copy of a parsed sheet, written after the first parse of a sheet and read back on later runs while
+ * the workbook is unchanged. Snapshots are off unless -Dexcel.snapshots=true is given, they are then stored in
+ * target/excel-snapshots of the working directory, or in -Dexcel.snapshot.dir. Giving -Dexcel.snapshot.dir alone turns
+ * them on as well.
+ * <p>
+ * A snapshot is keyed by the name of the workbook in its data folder and checked against the size and a CRC32 of the
+ * content of the workbook, so snapshots written from one copy of the data folder(e.g. src/test/resources/data by
+ * {@link SheetSnapshotCompiler}) are used by runs reading another copy(target/test-classes/data). It is only used for
+ * the reader which parsed it, the streaming and the workbook readers don't format every value the same way.
+ * {@link #VERSION} must be bumped whenever the layout or the formatting of the values changes.
+ * <p>
+ * Layout: magic, version, workbook size and CRC32, workbook name, reader class name, column count, row count, string
+ * count, string offsets, header string ids, cell string ids(row by row) and finally the UTF-8 bytes of the string
+ * table. Name and reader name are stored as their UTF-8 byte count followed by the bytes.
+ */
+final class SheetSnapshot {
+
+	private static final int MAGIC = 0x574D5853;
+	private static final int VERSION = 3;
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final String SNAPSHOTS_PROPERTY = "excel.snapshots";
+	private static final String SNAPSHOT_DIR_PROPERTY = "excel.snapshot.dir";
+	private static final String DEFAULT_SNAPSHOT_DIR = "target" + File.separator + "excel-snapshots";
+	private static final String SNAPSHOT_EXT = ".snapshot";
+	private static Logger logger = Logger.getLogger(SheetSnapshot.class.getName());
+
+	private SheetSnapshot() {
+	}
+
+	static boolean isEnabled() {
+		String snapshots = System.getProperty(SNAPSHOTS_PROPERTY);
+		return snapshots == null ? System.getProperty(SNAPSHOT_DIR_PROPERTY) != null : Boolean.parseBoolean(snapshots);
+	}
+
+	static File getSnapshotFile(File excelFile, String sheetName) {
+		File snapshotFolder = new File(System.getProperty(SNAPSHOT_DIR_PROPERTY, DEFAULT_SNAPSHOT_DIR));
+		try {
+			return new File(snapshotFolder, excelFile.getName() + "." + URLEncoder.encode(sheetName, "UTF-8") + SNAPSHOT_EXT);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * It will return the sheet from the snapshot if the snapshot was taken from a workbook of the same name and content
+	 * by the given reader, otherwise null.
+	 *
+	 * @param snapshotFile
+	 * @param excelFile
+	 * @param readerName
+	 *            class name of the reader the workbook would be parsed with
+	 * @return SheetData or null
+	 */
+	static SheetData readIfCurrent(File snapshotFile, File excelFile, String readerName) {
+		if (!snapshotFile.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile), BUFFER_SIZE))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return null;
+			}
+			if (in.readLong() != excelFile.length() || in.readLong() != checksum(excelFile)) {
+				return null;
+			}
+			if (!excelFile.getName().equals(readString(in)) || !readerName.equals(readString(in))) {
+				return null;
+			}
+			int columnCount = in.readInt();
+			int rowCount = in.readInt();
+			int stringCount = in.readInt();
+			int[] offsets = readInts(in, stringCount + 1);
+			int[] headerIds = readInts(in, columnCount);
+			int[] cellIds = readInts(in, rowCount * columnCount);
+			String[] strings = decodeStrings(in, offsets);
+			String[] headers = new String[columnCount];
+			for (int i = 0; i < columnCount; i++) {
+				headers[i] = strings[headerIds[i]];
+			}
+			List<String[]> rows = new ArrayList<>(rowCount);
+			for (int r = 0; r < rowCount; r++) {
+				String[] values = new String[columnCount];
+				for (int c = 0; c < columnCount; c++) {
+					values[c] = strings[cellIds[r * columnCount + c]];
+				}
+				rows.add(values);
+			}
+			return new SheetData(new SheetSchema(headers), rows);
+		} catch (IOException | RuntimeException e) {
+			logger.warning("Ignoring unreadable snapshot '" + snapshotFile + "': " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * @return CRC32 of the content of the workbook
+	 */
+	private static long checksum(File excelFile) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try (InputStream in = new FileInputStream(excelFile)) {
+			for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+				crc.update(buffer, 0, read);
+			}
+		}
+		return crc.getValue();
+	}
+
+	private static int[] readInts(DataInputStream in, int count) throws IOException {
+		int[] values = new int[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String[] decodeStrings(DataInputStream in, int[] offsets) throws IOException {
+		String[] strings = new String[offsets.length - 1];
+		byte[] bytes = new byte[offsets[offsets.length - 1]];
+		in.readFully(bytes);
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = new String(bytes, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+		}
+		return strings;
+	}
+
+	/**
+	 * Writes the snapshot of a sheet. The snapshot is written to a temporary file first and then moved in place, so
+	 * readers never see a partially written snapshot. Failures are only logged, snapshots are an optimization.
+	 *
+	 * @param snapshotFile
+	 * @param excelFile
+	 * @param readerName
+	 *            class name of the reader which parsed the sheet
+	 * @param sheetData
+	 */
+	static void write(File snapshotFile, File excelFile, String readerName, SheetData sheetData) {
+		SheetSchema schema = sheetData.getSchema();
+		int columnCount = schema.getColumnCount();
+		Map<String, Integer> stringIds = new HashMap<>();
+		List<byte[]> encodedStrings = new ArrayList<>();
+		int[] headerIds = new int[columnCount];
+		for (int c = 0; c < columnCount; c++) {
+			headerIds[c] = stringId(schema.getHeader(c), stringIds, encodedStrings);
+		}
+		int[] cellIds = new int[sheetData.size() * columnCount];
+		for (int r = 0; r < sheetData.size(); r++) {
+			String[] values = sheetData.getRow(r);
+			for (int c = 0; c < columnCount; c++) {
+				cellIds[r * columnCount + c] = stringId(values[c], stringIds, encodedStrings);
+			}
+		}
+		File tempFile = null;
+		try {
+			File snapshotFolder = snapshotFile.getAbsoluteFile().getParentFile();
+			Files.createDirectories(snapshotFolder.toPath());
+			tempFile = File.createTempFile(snapshotFile.getName(), ".tmp", snapshotFolder);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(excelFile.length());
+				out.writeLong(checksum(excelFile));
+				writeString(out, excelFile.getName());
+				writeString(out, readerName);
+				out.writeInt(columnCount);
+				out.writeInt(sheetData.size());
+				out.writeInt(encodedStrings.size());
+				int offset = 0;
+				out.writeInt(offset);
+				for (byte[] encoded : encodedStrings) {
+					offset += encoded.length;
+					out.writeInt(offset);
+				}
+				for (int id : headerIds) {
+					out.writeInt(id);
+				}
+				for (int id : cellIds) {
+					out.writeInt(id);
+				}
+				for (byte[] encoded : encodedStrings) {
+					out.write(encoded);
+				}
+			}
+			Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			logger.warning("Couldn't write snapshot '" + snapshotFile + "': " + e.getMessage());
+		} finally {
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+
+	private static int stringId(String value, Map<String, Integer> stringIds, List<byte[]> encodedStrings) {
+		Integer id = stringIds.get(value);
+		if (id == null) {
+			id = encodedStrings.size();
+			stringIds.put(value, id);
+			encodedStrings.add(value.getBytes(StandardCharsets.UTF_8));
+		}
+		return id;
+	}
+
+}
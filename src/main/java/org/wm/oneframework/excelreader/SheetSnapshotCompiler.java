@@ -0,0 +1,43 @@
+package org.wm.oneframework.excelreader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Logger;
+
+/**
+ * Build step which writes the snapshot of every sheet of every .xls/.xlsx workbook in a data folder, so that even the first
+ * run of a suite reads snapshots instead of parsing workbooks. Run with the 'excel-snapshots' maven profile, the suite
+ * reads them when run with -Dexcel.snapshots=true. The profile compiles the copy of the data folder in
+ * target/test-classes the suite reads, snapshots only depend on the name and content of a workbook though.
+ * <p>
+ * Arguments: data folder(default src/test/resources/data) and snapshot folder(default target/excel-snapshots).
+ */
+public final class SheetSnapshotCompiler {
+
+	private static Logger logger = Logger.getLogger(SheetSnapshotCompiler.class.getName());
+
+	private SheetSnapshotCompiler() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		File dataFolder = new File(args.length > 0 ? args[0] : "src/test/resources/data");
+		if (args.length > 1) {
+			System.setProperty("excel.snapshot.dir", args[1]);
+		}
+		System.setProperty("excel.snapshots", "true");
+		System.setProperty("excel.data.dir", dataFolder.getAbsolutePath());
+		File[] excelFiles = dataFolder.listFiles((folder, name) -> name.endsWith(".xls") || name.endsWith(".xlsx"));
+		if (excelFiles == null) {
+			logger.warning("Data folder '" + dataFolder + "' not found, no snapshot written.");
+			return;
+		}
+		for (File excelFile : excelFiles) {
+			String excelName = excelFile.getName().substring(0, excelFile.getName().lastIndexOf('.'));
+			for (String sheetName : ReadExcel.getSheetReader(excelFile).getSheetNames(excelFile)) {
+				SheetData sheetData = ReadExcel.getSheetData(excelName, sheetName);
+				logger.info("Snapshot of " + excelFile.getName() + "[" + sheetName + "]: " + sheetData.size() + " rows");
+			}
+		}
+	}
+
+}
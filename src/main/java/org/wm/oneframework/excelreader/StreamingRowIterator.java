@@ -0,0 +1,173 @@
+package org.wm.oneframework.excelreader;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import org.wm.oneframework.exception.ExcelDetailException;
+
+/**
+ * Lazy data provider rows backed by a streaming {@link SheetReader}. The sheet is parsed on a background daemon thread
+ * which hands rows over through a small bounded queue, so the first row is available as soon as it is parsed and rows
+ * are not retained once they have been consumed. Rows not matching the {@link RowFilter} are dropped as soon as they
+ * are parsed.
+ * <p>
+ * An iterator which is abandoned before the end of the sheet(data provider not consumed, tests skipped) stops its
+ * background parse once it is garbage collected, or when no row was taken for -Dexcel.lazy.timeout seconds(default
+ * 300). Rows asked for after such a timeout, and failures of the parse, are thrown from {@link #hasNext()}.
+ */
+class StreamingRowIterator implements Iterator<Object[]>, Closeable {
+
+	private static final String TIMEOUT_PROPERTY = "excel.lazy.timeout";
+	private static final long DEFAULT_TIMEOUT_SECONDS = 300;
+	private static final int QUEUE_CAPACITY = 64;
+	private static final long POLL_MILLIS = 100;
+	private static final Object[] END_OF_SHEET = new Object[0];
+	private static Logger logger = Logger.getLogger(StreamingRowIterator.class.getName());
+
+	private final Producer producer;
+	private Object[] nextRow;
+
+	StreamingRowIterator(File excelFile, String sheetName, RowFilter rowFilter) {
+		long timeoutMillis = TimeUnit.SECONDS.toMillis(Long.getLong(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT_SECONDS));
+		producer = new Producer(this, excelFile, sheetName, rowFilter, timeoutMillis);
+		Thread thread = new Thread(producer, "excel-row-reader-" + excelFile.getName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public boolean hasNext() {
+		try {
+			while (nextRow == null) {
+				nextRow = producer.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (nextRow == null && producer.stopped) {
+					Object[] lastRow = producer.queue.poll();
+					nextRow = lastRow == null ? END_OF_SHEET : lastRow;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ExcelDetailException("Interrupted while reading sheet '" + producer.sheetName + "' from excel '" + producer.excelFile.getName() + "'.", e);
+		}
+		if (nextRow == END_OF_SHEET && producer.failure != null) {
+			throw producer.failure;
+		}
+		return nextRow != END_OF_SHEET;
+	}
+
+	@Override
+	public Object[] next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		Object[] row = nextRow;
+		nextRow = null;
+		return row;
+	}
+
+	/**
+	 * Stops the background parse. Only needed when the iterator is abandoned before the end of the sheet.
+	 */
+	@Override
+	public void close() {
+		producer.closed = true;
+		producer.queue.clear();
+		nextRow = END_OF_SHEET;
+	}
+
+	/**
+	 * Parses the sheet into the queue. It only holds a weak reference to its iterator, so an abandoned iterator can be
+	 * collected and the parse stopped.
+	 */
+	private static final class Producer implements Runnable {
+
+		private final BlockingQueue<Object[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		private final WeakReference<StreamingRowIterator> owner;
+		private final File excelFile;
+		private final String sheetName;
+		private final RowFilter rowFilter;
+		private final long timeoutMillis;
+		private volatile boolean closed;
+		private volatile boolean stopped;
+		private volatile RuntimeException failure;
+
+		Producer(StreamingRowIterator owner, File excelFile, String sheetName, RowFilter rowFilter, long timeoutMillis) {
+			this.owner = new WeakReference<>(owner);
+			this.excelFile = excelFile;
+			this.sheetName = sheetName;
+			this.rowFilter = rowFilter;
+			this.timeoutMillis = timeoutMillis;
+		}
+
+		@Override
+		public void run() {
+			try {
+				SheetReaders.streamingReader(excelFile).read(excelFile, sheetName, new RowHandler() {
+
+					private SheetSchema schema;
+					private Predicate<String[]> predicate;
+
+					@Override
+					public void handleRow(int rowIndex, String[] values) {
+						if (schema == null) {
+							schema = new SheetSchema(values);
+							predicate = rowFilter.bind(schema);
+						} else {
+							String[] rowValues = schema.toValues(values);
+							if (predicate.test(rowValues)) {
+								enqueue(new Object[] { new RowMap(schema, rowValues) });
+							}
+						}
+					}
+				});
+				enqueue(END_OF_SHEET);
+			} catch (ReaderClosedException e) {
+				// the iterator was closed, abandoned or timed out
+			} catch (ExcelDetailException e) {
+				failure = e;
+			} catch (IOException | RuntimeException e) {
+				failure = new ExcelDetailException("Not able to read sheet '" + sheetName + "' of '" + excelFile.getName() + "': " + e.getMessage(), e);
+			} finally {
+				stopped = true;
+			}
+		}
+
+		private void enqueue(Object[] row) {
+			long deadline = System.currentTimeMillis() + timeoutMillis;
+			try {
+				while (!queue.offer(row, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+					if (closed) {
+						throw new ReaderClosedException();
+					}
+					if (owner.get() == null) {
+						logger.fine("Stopped reading sheet '" + sheetName + "' of '" + excelFile.getName() + "', its iterator was abandoned.");
+						throw new ReaderClosedException();
+					}
+					if (System.currentTimeMillis() > deadline) {
+						failure = new ExcelDetailException("Stopped reading sheet '" + sheetName + "' of '" + excelFile.getName() + "', no row was taken for " + timeoutMillis + " ms.");
+						logger.warning(failure.getMessage());
+						throw new ReaderClosedException();
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ReaderClosedException();
+			}
+		}
+	}
+
+	private static class ReaderClosedException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+	}
+
+}
@@ -0,0 +1,116 @@
+package org.wm.oneframework.excelreader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.wm.oneframework.exception.ExcelDetailException;
+
+/**
+ * Reads a single sheet through the POI user model, i.e. the whole workbook is loaded in memory. Every read opens its
+ * own stream and workbook, so one instance per call can be used from any number of threads at the same time. The
+ * formula evaluator is created once per sheet.
+ */
+class WorkbookSheetReader implements SheetReader {
+
+	private final DataFormatter dataFormatter = new DataFormatter();
+
+	@Override
+	public void read(File excelFile, String sheetName, RowHandler rowHandler) throws IOException {
+		try (Workbook workbook = openWorkbook(excelFile)) {
+			Sheet sheet = workbook.getSheet(sheetName);
+			if (sheet == null) {
+				throw new ExcelDetailException("Excel Sheet name is not correct. Trying to load sheet '" + sheetName + "' from excel '" + excelFile.getName() + "', which looks like not available.");
+			}
+			FormulaEvaluator formulaEvaluator = workbook.getCreationHelper().createFormulaEvaluator();
+			int numRows = sheet.getLastRowNum();
+			for (int i = 0; i <= numRows; i++) {
+				Row row = sheet.getRow(i);
+				if (row != null) {
+					rowHandler.handleRow(i, getDataFromRow(row, formulaEvaluator));
+				}
+			}
+		}
+	}
+
+	@Override
+	public List<String> getSheetNames(File excelFile) throws IOException {
+		List<String> sheetNames = new ArrayList<>();
+		try (Workbook workbook = openWorkbook(excelFile)) {
+			for (Sheet sheet : workbook) {
+				sheetNames.add(sheet.getSheetName());
+			}
+		}
+		return sheetNames;
+	}
+
+	private Workbook openWorkbook(File excelFile) throws IOException {
+		try {
+			return WorkbookFactory.create(excelFile, null, true);
+		} catch (InvalidFormatException e) {
+			throw new IOException("Unable to open '" + excelFile.getName() + "': " + e.getMessage(), e);
+		}
+	}
+
+	private String[] getDataFromRow(Row row, FormulaEvaluator formulaEvaluator) {
+		short numCells = row.getLastCellNum();
+		String[] result = new String[numCells];
+		for (int i = 0; i < numCells; i++) {
+			result[i] = getValueAsString(row.getCell(i), formulaEvaluator);
+		}
+		return result;
+	}
+
+	private String getValueAsString(Cell cell, FormulaEvaluator formulaEvaluator) {
+		if (cell != null) {
+			CellType cellType = cell.getCellTypeEnum();
+			if (cellType.equals(CellType.BOOLEAN)) {
+				return String.valueOf(cell.getBooleanCellValue());
+			} else if (cellType.equals(CellType.NUMERIC)) {
+				return dataFormatter.formatCellValue(cell);
+			} else if (cellType.equals(CellType.STRING)) {
+				return cell.getRichStringCellValue().getString();
+			} else if (cellType.equals(CellType.FORMULA)) {
+				return getFormulaResultAsString(cell, formulaEvaluator.evaluate(cell));
+			}
+		}
+		return "";
+	}
+
+	/**
+	 * Formats the evaluated result of a formula cell by its type, numbers(and dates) with the format of the cell, so
+	 * formula cells read the same as the cached results read by the streaming readers.
+	 */
+	private String getFormulaResultAsString(Cell cell, CellValue cellValue) {
+		if (cellValue == null) {
+			return "";
+		}
+		switch (cellValue.getCellTypeEnum()) {
+		case NUMERIC:
+			CellStyle cellStyle = cell.getCellStyle();
+			return dataFormatter.formatRawCellContents(cellValue.getNumberValue(), cellStyle.getDataFormat(), cellStyle.getDataFormatString());
+		case BOOLEAN:
+			return String.valueOf(cellValue.getBooleanValue());
+		case STRING:
+			return cellValue.getStringValue();
+		case ERROR:
+			return FormulaError.forInt(cellValue.getErrorValue()).getString();
+		default:
+			return "";
+		}
+	}
+
+}
@@ -0,0 +1,152 @@
+package org.wm.oneframework.excelreader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.MissingRecordAwareHSSFListener;
+import org.apache.poi.hssf.eventusermodel.dummyrecord.LastCellOfRowDummyRecord;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.wm.oneframework.exception.ExcelDetailException;
+
+/**
+ * Reads a single sheet of a legacy .xls workbook with the HSSF event API. Records are processed as they are read from
+ * the file and rows are pushed to the {@link RowHandler} at the end of every row, so the workbook is never loaded in
+ * memory.
+ */
+public class XlsSheetReader implements SheetReader {
+
+	@Override
+	public void read(File excelFile, String sheetName, RowHandler rowHandler) throws IOException {
+		SheetListener sheetListener = new SheetListener(sheetName, rowHandler);
+		FormatTrackingHSSFListener formatListener = new FormatTrackingHSSFListener(new MissingRecordAwareHSSFListener(sheetListener));
+		sheetListener.formatListener = formatListener;
+		HSSFRequest request = new HSSFRequest();
+		request.addListenerForAllRecords(formatListener);
+		try (POIFSFileSystem fileSystem = new POIFSFileSystem(excelFile, true)) {
+			new HSSFEventFactory().processWorkbookEvents(request, fileSystem);
+		}
+		if (!sheetListener.sheetNames.contains(sheetName)) {
+			throw new ExcelDetailException("Excel Sheet name is not correct. Trying to load sheet '" + sheetName + "' from excel '" + excelFile.getName() + "', which looks like not available.");
+		}
+	}
+
+	@Override
+	public List<String> getSheetNames(File excelFile) throws IOException {
+		List<String> sheetNames = new ArrayList<>();
+		HSSFRequest request = new HSSFRequest();
+		request.addListener(record -> sheetNames.add(((BoundSheetRecord) record).getSheetname()), BoundSheetRecord.sid);
+		try (POIFSFileSystem fileSystem = new POIFSFileSystem(excelFile, true)) {
+			new HSSFEventFactory().processWorkbookEvents(request, fileSystem);
+		}
+		return sheetNames;
+	}
+
+	private static class SheetListener implements HSSFListener {
+
+		private final String sheetName;
+		private final RowHandler rowHandler;
+		private final List<BoundSheetRecord> boundSheetRecords = new ArrayList<>();
+		private final List<String> sheetNames = new ArrayList<>();
+		private final List<String> rowValues = new ArrayList<>();
+		private FormatTrackingHSSFListener formatListener;
+		private SSTRecord sstRecord;
+		private int sheetIndex = -1;
+		private boolean inSheet;
+		private int pendingStringColumn = -1;
+
+		SheetListener(String sheetName, RowHandler rowHandler) {
+			this.sheetName = sheetName;
+			this.rowHandler = rowHandler;
+		}
+
+		@Override
+		public void processRecord(Record record) {
+			if (record instanceof BoundSheetRecord) {
+				boundSheetRecords.add((BoundSheetRecord) record);
+			} else if (record instanceof SSTRecord) {
+				sstRecord = (SSTRecord) record;
+			} else if (record instanceof BOFRecord && ((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) {
+				if (sheetIndex < 0) {
+					for (BoundSheetRecord boundSheetRecord : BoundSheetRecord.orderByBofPosition(boundSheetRecords)) {
+						sheetNames.add(boundSheetRecord.getSheetname());
+					}
+				}
+				sheetIndex++;
+				inSheet = sheetIndex < sheetNames.size() && sheetNames.get(sheetIndex).equals(sheetName);
+			} else if (inSheet) {
+				processSheetRecord(record);
+			}
+		}
+
+		private void processSheetRecord(Record record) {
+			if (record instanceof LastCellOfRowDummyRecord) {
+				if (!rowValues.isEmpty()) {
+					rowHandler.handleRow(((LastCellOfRowDummyRecord) record).getRow(), rowValues.toArray(new String[0]));
+					rowValues.clear();
+				}
+			} else if (record instanceof StringRecord && pendingStringColumn >= 0) {
+				setValue(pendingStringColumn, ((StringRecord) record).getString());
+				pendingStringColumn = -1;
+			} else if (record instanceof CellValueRecordInterface) {
+				CellValueRecordInterface cell = (CellValueRecordInterface) record;
+				setValue(cell.getColumn(), getValueAsString(record));
+			}
+		}
+
+		private String getValueAsString(Record record) {
+			if (record instanceof NumberRecord) {
+				return formatListener.formatNumberDateCell((NumberRecord) record);
+			} else if (record instanceof LabelSSTRecord) {
+				return sstRecord.getString(((LabelSSTRecord) record).getSSTIndex()).getString();
+			} else if (record instanceof LabelRecord) {
+				return ((LabelRecord) record).getValue();
+			} else if (record instanceof BoolErrRecord) {
+				BoolErrRecord boolErrRecord = (BoolErrRecord) record;
+				return boolErrRecord.isBoolean() ? String.valueOf(boolErrRecord.getBooleanValue()) : FormulaError.forInt(boolErrRecord.getErrorValue()).getString();
+			} else if (record instanceof FormulaRecord) {
+				return getFormulaResultAsString((FormulaRecord) record);
+			}
+			return "";
+		}
+
+		private String getFormulaResultAsString(FormulaRecord formulaRecord) {
+			int resultType = formulaRecord.getCachedResultType();
+			if (formulaRecord.hasCachedResultString()) {
+				pendingStringColumn = formulaRecord.getColumn();
+				return "";
+			} else if (resultType == CellType.BOOLEAN.getCode()) {
+				return String.valueOf(formulaRecord.getCachedBooleanValue());
+			} else if (resultType == CellType.ERROR.getCode()) {
+				return FormulaError.forInt(formulaRecord.getCachedErrorValue()).getString();
+			}
+			return formatListener.formatNumberDateCell(formulaRecord);
+		}
+
+		private void setValue(int columnIndex, String value) {
+			while (rowValues.size() <= columnIndex) {
+				rowValues.add("");
+			}
+			rowValues.set(columnIndex, value);
+		}
+	}
+
+}
@@ -0,0 +1,177 @@
+package org.wm.oneframework.excelreader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.wm.oneframework.exception.ExcelDetailException;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reads a single sheet of an .xlsx workbook with the XSSF event model. The sheet xml is parsed with SAX and every row
+ * is handed to a {@link RowHandler} as soon as it is complete, so memory stays flat regardless of the sheet size.
+ */
+public class XlsxSheetReader implements SheetReader {
+
+	private final DataFormatter dataFormatter = new DataFormatter();
+
+	@Override
+	public void read(File excelFile, String sheetName, RowHandler rowHandler) throws IOException {
+		OPCPackage opcPackage = null;
+		try {
+			opcPackage = OPCPackage.open(excelFile, PackageAccess.READ);
+			XSSFReader xssfReader = new XSSFReader(opcPackage);
+			ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+			StylesTable styles = xssfReader.getStylesTable();
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+			while (sheets.hasNext()) {
+				try (InputStream sheetStream = sheets.next()) {
+					if (sheets.getSheetName().equals(sheetName)) {
+						XMLReader xmlReader = SAXHelper.newXMLReader();
+						xmlReader.setContentHandler(new SheetHandler(sharedStrings, styles, rowHandler));
+						xmlReader.parse(new InputSource(sheetStream));
+						return;
+					}
+				}
+			}
+		} catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+			throw new IOException("Unable to parse '" + excelFile.getName() + "': " + e.getMessage(), e);
+		} finally {
+			if (opcPackage != null) {
+				opcPackage.revert();
+			}
+		}
+		throw new ExcelDetailException("Excel Sheet name is not correct. Trying to load sheet '" + sheetName + "' from excel '" + excelFile.getName() + "', which looks like not available.");
+	}
+
+	@Override
+	public List<String> getSheetNames(File excelFile) throws IOException {
+		List<String> sheetNames = new ArrayList<>();
+		OPCPackage opcPackage = null;
+		try {
+			opcPackage = OPCPackage.open(excelFile, PackageAccess.READ);
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(opcPackage).getSheetsData();
+			while (sheets.hasNext()) {
+				sheets.next().close();
+				sheetNames.add(sheets.getSheetName());
+			}
+		} catch (OpenXML4JException e) {
+			throw new IOException("Unable to parse '" + excelFile.getName() + "': " + e.getMessage(), e);
+		} finally {
+			if (opcPackage != null) {
+				opcPackage.revert();
+			}
+		}
+		return sheetNames;
+	}
+
+	private class SheetHandler extends DefaultHandler {
+
+		private final ReadOnlySharedStringsTable sharedStrings;
+		private final StylesTable styles;
+		private final RowHandler rowHandler;
+		private final List<String> rowValues = new ArrayList<>();
+		private final StringBuilder cellText = new StringBuilder();
+		private boolean capturingText;
+		private int rowIndex = -1;
+		private int columnIndex;
+		private String cellType;
+		private String cellStyle;
+
+		SheetHandler(ReadOnlySharedStringsTable sharedStrings, StylesTable styles, RowHandler rowHandler) {
+			this.sharedStrings = sharedStrings;
+			this.styles = styles;
+			this.rowHandler = rowHandler;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			if ("row".equals(localName)) {
+				String rowReference = attributes.getValue("r");
+				rowIndex = rowReference == null ? rowIndex + 1 : Integer.parseInt(rowReference) - 1;
+				rowValues.clear();
+				columnIndex = 0;
+			} else if ("c".equals(localName)) {
+				String cellReference = attributes.getValue("r");
+				if (cellReference != null) {
+					columnIndex = new CellReference(cellReference).getCol();
+				}
+				cellType = attributes.getValue("t");
+				cellStyle = attributes.getValue("s");
+				cellText.setLength(0);
+			} else if ("v".equals(localName) || "t".equals(localName)) {
+				capturingText = true;
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (capturingText) {
+				cellText.append(ch, start, length);
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			if ("v".equals(localName) || "t".equals(localName)) {
+				capturingText = false;
+			} else if ("c".equals(localName)) {
+				while (rowValues.size() < columnIndex) {
+					rowValues.add("");
+				}
+				rowValues.add(getValueAsString());
+				columnIndex++;
+			} else if ("row".equals(localName)) {
+				rowHandler.handleRow(rowIndex, rowValues.toArray(new String[0]));
+			}
+		}
+
+		private String getValueAsString() {
+			String value = cellText.toString();
+			if (value.isEmpty()) {
+				return "";
+			} else if ("s".equals(cellType)) {
+				return sharedStrings.getEntryAt(Integer.parseInt(value));
+			} else if ("b".equals(cellType)) {
+				return String.valueOf("1".equals(value));
+			} else if ("inlineStr".equals(cellType) || "str".equals(cellType) || "e".equals(cellType)) {
+				return value;
+			}
+			return formatNumber(value);
+		}
+
+		private String formatNumber(String value) {
+			int formatIndex = 0;
+			String formatString = null;
+			if (cellStyle != null && styles != null) {
+				XSSFCellStyle style = styles.getStyleAt(Integer.parseInt(cellStyle));
+				formatIndex = style.getDataFormat();
+				formatString = style.getDataFormatString();
+			}
+			if (formatString == null) {
+				formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+			}
+			return dataFormatter.formatRawCellContents(Double.parseDouble(value), formatIndex, formatString);
+		}
+	}
+
+}
@@ -0,0 +1,97 @@
+package org.wm.oneframework.listeners;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.xml.XmlSuite.ParallelMode;
+import org.testng.xml.XmlTest;
+import org.wm.oneframewok.seleniumadapter.drivers.DriverPool;
+import org.wm.oneframework.config.Config;
+import org.wm.oneframework.seleniumadapter.utils.BaseTest;
+
+/**
+ * Starts launching the browsers of the suite on background threads when the suite starts, so browser start up overlaps
+ * the excel parsing, report and configuration loading, and {@link BaseTest#getDriver()} only waits for a ready session.
+ * One browser is launched per thread of the suite(the largest thread-count of its parallel tests, 1 when none is
+ * parallel) and at most driver.pool.size, into the {@link DriverPool} of the configured browser. It is opt-in: nothing is
+ * launched unless driver.pool.size is set, and suites without a test extending {@link BaseTest} launch nothing either.
+ * Add it to the listeners of the suite:
+ *
+ * <pre>
+ * &lt;listeners&gt;
+ *   &lt;listener class-name="org.wm.oneframework.listeners.BrowserPrelaunchListener"/&gt;
+ * &lt;/listeners&gt;
+ * </pre>
+ */
+public class BrowserPrelaunchListener implements ISuiteListener {
+
+	private static Logger logger = LogManager.getLogger(BrowserPrelaunchListener.class.getName());
+	private final Map<String, ExecutorService> executors = new ConcurrentHashMap<>();
+
+	@Override
+	public void onStart(ISuite suite) {
+		if (!usesBrowser(suite)) {
+			return;
+		}
+		if (!DriverPool.isEnabled()) {
+			logger.info("driver.pool.size is not set, no browser is prelaunched.");
+			return;
+		}
+		int sessions = getThreadCount(suite);
+		String browserName = Config.BROWSER;
+		DriverPool pool = DriverPool.forBrowser(browserName);
+		int launches = Math.min(sessions, pool.getSize());
+		ExecutorService executor = Executors.newFixedThreadPool(launches, runnable -> {
+			Thread thread = new Thread(runnable, "browser-prelaunch");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executors.put(suite.getName(), executor);
+		long start = System.nanoTime();
+		pool.prelaunchAsync(launches, executor).whenComplete((result, error) -> {
+			if (error == null) {
+				logger.info("Prelaunched " + launches + " " + browserName + " sessions in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+			}
+		});
+		logger.info("Prelaunching " + launches + " " + browserName + " sessions.");
+	}
+
+	private static boolean usesBrowser(ISuite suite) {
+		for (ITestNGMethod testMethod : suite.getAllMethods()) {
+			if (BaseTest.class.isAssignableFrom(testMethod.getRealClass())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the largest thread-count of the parallel tests of the suite, 1 if none is parallel
+	 */
+	private static int getThreadCount(ISuite suite) {
+		int threadCount = 1;
+		for (XmlTest test : suite.getXmlSuite().getTests()) {
+			ParallelMode parallel = test.getParallel();
+			if (parallel != null && parallel.isParallel()) {
+				threadCount = Math.max(threadCount, test.getThreadCount());
+			}
+		}
+		return threadCount;
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		ExecutorService executor = executors.remove(suite.getName());
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+package org.wm.oneframework.listeners;
+
+import javax.management.JMException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.wm.oneframework.configprovider.ConfigStats;
+
+/**
+ * Publishes the configuration lookup stats over JMX while the suite runs and logs the hot and missing keys when it
+ * finishes. Add it to the listeners of the suite:
+ * 
+ * <pre>
+ * &lt;listeners&gt;
+ *   &lt;listener class-name="org.wm.oneframework.listeners.ConfigStatsListener"/&gt;
+ * &lt;/listeners&gt;
+ * </pre>
+ */
+public class ConfigStatsListener implements ISuiteListener {
+
+	private static final int HOT_KEYS = 20;
+	private static Logger logger = LogManager.getLogger(ConfigStatsListener.class.getName());
+
+	@Override
+	public void onStart(ISuite suite) {
+		try {
+			ConfigStats.registerMBean();
+		} catch (JMException e) {
+			logger.warn("Not able to register the configuration stats MBean: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		logger.info(ConfigStats.getInstance().report(HOT_KEYS));
+	}
+
+}
@@ -0,0 +1,89 @@
+package org.wm.oneframework.listeners;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.annotations.Test;
+import org.wm.oneframework.excelreader.ExcelDetailsIndex;
+import org.wm.oneframework.excelreader.ExcelSource;
+import org.wm.oneframework.excelreader.SheetCache;
+import org.wm.oneframework.excelreader.SheetPreloader;
+
+/**
+ * Preloads the sheets of every data driven test of the suite in parallel when the suite starts, so test data is parsed
+ * while the browsers start instead of on the first data provider call. Add it to the listeners of the suite:
+ * 
+ * <pre>
+ * &lt;listeners&gt;
+ *   &lt;listener class-name="org.wm.oneframework.listeners.ExcelPreloadListener"/&gt;
+ * &lt;/listeners&gt;
+ * </pre>
+ */
+public class ExcelPreloadListener implements ISuiteListener {
+
+	private static Logger logger = LogManager.getLogger(ExcelPreloadListener.class.getName());
+	private final Map<String, ForkJoinPool> pools = new ConcurrentHashMap<>();
+	private final Map<String, ForkJoinTask<Integer>> preloads = new ConcurrentHashMap<>();
+
+	@Override
+	public void onStart(ISuite suite) {
+		List<ExcelSource> excelSources = new ArrayList<>();
+		for (ITestNGMethod testMethod : suite.getAllMethods()) {
+			ExcelSource excelSource = getExcelSource(testMethod);
+			if (excelSource != null) {
+				excelSources.add(excelSource);
+			}
+		}
+		if (excelSources.isEmpty()) {
+			return;
+		}
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		pools.put(suite.getName(), pool);
+		preloads.put(suite.getName(), SheetPreloader.preload(excelSources, pool));
+		logger.info("Preloading the excel data of " + excelSources.size() + " data driven tests.");
+	}
+
+	/**
+	 * @return the excel details of a test using a data provider, method level first, null if there are none
+	 */
+	private static ExcelSource getExcelSource(ITestNGMethod testMethod) {
+		Method method = testMethod.getConstructorOrMethod().getMethod();
+		Test test = method == null ? null : method.getAnnotation(Test.class);
+		if (test == null || test.dataProvider().isEmpty()) {
+			return null;
+		}
+		ExcelSource excelSource = ExcelDetailsIndex.forMethod(method);
+		return excelSource != null ? excelSource : ExcelDetailsIndex.forClass(testMethod.getRealClass());
+	}
+
+	/**
+	 * Cancels the preload if the suite finished before it did and gives the cache its configured size back.
+	 */
+	@Override
+	public void onFinish(ISuite suite) {
+		ForkJoinPool pool = pools.remove(suite.getName());
+		ForkJoinTask<Integer> preload = preloads.remove(suite.getName());
+		if (pool == null) {
+			return;
+		}
+		if (preload.isDone()) {
+			pool.shutdown();
+		} else {
+			preload.cancel(true);
+			pool.shutdownNow();
+			logger.info("Cancelled the excel preload, the suite finished first.");
+		}
+		SheetCache.resetCapacity();
+	}
+
+}
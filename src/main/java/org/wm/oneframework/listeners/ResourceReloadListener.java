@@ -0,0 +1,112 @@
+package org.wm.oneframework.listeners;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.wm.oneframework.configprovider.ConfigProvider;
+import org.wm.oneframework.configprovider.exceptions.PropertyFileNotFoundException;
+import org.wm.oneframework.excelreader.ReadExcel;
+import org.wm.oneframework.excelreader.SheetCache;
+import org.wm.oneframework.utilities.ResourceWatcher;
+
+/**
+ * Reloads test data and properties edited while a long(soak) run is going on. The data and properties folders are
+ * watched, a changed workbook or properties file is parsed again in the background and swapped in once completely
+ * loaded, tests keep reading the previous version until then and never wait for the reload.
+ * <p>
+ * To pick up edits of the source files rather than of their copies in target, point the readers to the source folders:
+ * -Dexcel.data.dir=src/test/resources/data -Dconfig.properties.dir=src/test/resources/properties. Add it to the
+ * listeners of the suite:
+ *
+ * <pre>
+ * &lt;listeners&gt;
+ *   &lt;listener class-name="org.wm.oneframework.listeners.ResourceReloadListener"/&gt;
+ * &lt;/listeners&gt;
+ * </pre>
+ */
+public class ResourceReloadListener implements ISuiteListener {
+
+	private static Logger logger = LogManager.getLogger(ResourceReloadListener.class.getName());
+	private ResourceWatcher watcher;
+	private ExecutorService refreshExecutor;
+
+	@Override
+	public synchronized void onStart(ISuite suite) {
+		if (watcher != null) {
+			return;
+		}
+		List<File> folders = new ArrayList<>();
+		File dataFolder = getDataFolder();
+		if (dataFolder != null) {
+			folders.add(dataFolder);
+		}
+		File propertiesFolder = getPropertiesFolder();
+		if (propertiesFolder != null) {
+			folders.add(propertiesFolder);
+		}
+		refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "excel-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+		SheetCache.setRefreshExecutor(refreshExecutor);
+		try {
+			watcher = new ResourceWatcher(folders, this::reload);
+			logger.info("Watching " + folders + " for changes.");
+		} catch (IOException e) {
+			logger.error("Not able to watch " + folders + ": " + e.getMessage());
+		}
+	}
+
+	private void reload(File changedFile) {
+		if (changedFile.getName().endsWith(".properties")) {
+			ConfigProvider.reload(changedFile);
+		} else {
+			ReadExcel.refresh(changedFile);
+		}
+	}
+
+	private static File getDataFolder() {
+		try {
+			return ReadExcel.getDataFolder();
+		} catch (RuntimeException e) {
+			logger.warn("No data folder to watch: " + e.getMessage());
+			return null;
+		}
+	}
+
+	private static File getPropertiesFolder() {
+		try {
+			return ConfigProvider.getPropertiesFolder();
+		} catch (PropertyFileNotFoundException e) {
+			logger.warn("No properties folder to watch: " + e.getMessage());
+			return null;
+		}
+	}
+
+	@Override
+	public synchronized void onFinish(ISuite suite) {
+		SheetCache.setRefreshExecutor(null);
+		if (refreshExecutor != null) {
+			refreshExecutor.shutdown();
+			refreshExecutor = null;
+		}
+		if (watcher != null) {
+			try {
+				watcher.close();
+			} catch (IOException e) {
+				logger.warn("Not able to stop watching: " + e.getMessage());
+			}
+			watcher = null;
+		}
+	}
+
+}
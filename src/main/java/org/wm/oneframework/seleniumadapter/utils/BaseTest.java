@@ -3,6 +3,7 @@ package org.wm.oneframework.seleniumadapter.utils;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.util.Iterator;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
@@ -10,10 +11,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.wm.oneframewok.seleniumadapter.drivers.DriverManager;
 import org.wm.oneframewok.seleniumadapter.drivers.DriverManagerFactory;
-import org.wm.oneframework.configprovider.ConfigProvider;
+import org.wm.oneframewok.seleniumadapter.drivers.DriverPool;
+import org.wm.oneframework.config.Config;
 import org.wm.oneframework.excelreader.ExcelDataProvider;
 import org.wm.oneframework.utilities.Screenshots;
 import org.openqa.selenium.WebDriver;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Listeners;
@@ -24,7 +27,7 @@ public class BaseTest {
 	private static ThreadLocal<DriverManager> driverManager = new ThreadLocal<>();
 	private static ThreadLocal<WebDriver> driver = new ThreadLocal<>();
 	public static Logger logger = LogManager.getLogger(BaseTest.class.getName());
-	private String browserName = ConfigProvider.getAsString("browser");
+	private String browserName = Config.BROWSER;
 
 	public void folderCleanup() throws IOException {
 		File file = new File(Screenshots.getScreenshotsFolderPath());
@@ -38,19 +41,62 @@ public class BaseTest {
 		return new ExcelDataProvider(getClass()).data(method);
 	}
 
+	@DataProvider(name = "lazyData")
+	public Iterator<Object[]> readExcelDataLazily(Method method) {
+		logger.debug("Streaming data from excel.");
+		return new ExcelDataProvider(getClass()).lazyData(method);
+	}
+
+	@DataProvider(name = "shardedData")
+	public Object[][] readShardedExcelData(Method method) {
+		logger.debug("Reading this JVM's shard of the data from excel.");
+		return new ExcelDataProvider(getClass()).shardedData(method);
+	}
+
+	/**
+	 * It will return the browser of the calling thread. With driver.pool.size set, the browser is leased from the
+	 * {@link DriverPool} for the current test and returned to it after the test, waiting for the browsers a registered
+	 * BrowserPrelaunchListener is still launching.
+	 * 
+	 * @return WebDriver
+	 */
 	public WebDriver getDriver() {
+		if (DriverPool.isEnabled()) {
+			if (driver.get() == null) {
+				driver.set(DriverPool.forBrowser(browserName).lease());
+				configure(driver.get());
+			}
+			return driver.get();
+		}
 		if (driverManager.get() == null)
 			driverManager.set(DriverManagerFactory.getManager(browserName));
 		driver.set(driverManager.get().getDriver());
-		driver.get().manage().timeouts().implicitlyWait(ConfigProvider.getAsInt("ImplicitWait"), TimeUnit.SECONDS);
-		if (!browserName.equalsIgnoreCase("chrome"))
-			driver.get().manage().window().maximize();
+		configure(driver.get());
 		return driver.get();
 	}
 
+	private void configure(WebDriver webDriver) {
+		webDriver.manage().timeouts().implicitlyWait(Config.IMPLICIT_WAIT.toMillis(), TimeUnit.MILLISECONDS);
+		if (!browserName.equalsIgnoreCase("chrome"))
+			webDriver.manage().window().maximize();
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void releaseDriver() {
+		WebDriver leasedDriver = driver.get();
+		if (leasedDriver != null && DriverPool.isEnabled()) {
+			driver.remove();
+			DriverPool.forBrowser(browserName).release(leasedDriver);
+		}
+	}
+
 	@AfterSuite(alwaysRun = true)
 	public void stopDriverService() {
-		driverManager.get().stopService();
+		if (DriverPool.isEnabled()) {
+			DriverPool.closeAll();
+		} else {
+			driverManager.get().stopService();
+		}
 	}
 
 	public void launchApplication(String url) {
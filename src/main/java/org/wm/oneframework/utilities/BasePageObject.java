@@ -7,7 +7,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.wm.oneframework.configprovider.ConfigProvider;
+import org.wm.oneframework.config.Config;
 import org.openqa.selenium.Alert;
 import org.openqa.selenium.By;
 import org.openqa.selenium.ElementNotInteractableException;
@@ -43,11 +43,11 @@ public class BasePageObject {
 	private static final String CLICK = "Click: ";
 	private static Logger logger = LogManager.getLogger(BasePageObject.class.getName());
 	private List<Class<? extends Throwable>> ignoredExceptions = new ArrayList<>();
-	private int timeoutDuration = ConfigProvider.getAsInt("TimeOutDuration");
+	private int timeoutDuration = (int) Config.TIME_OUT_DURATION.getSeconds();
 
 	public BasePageObject(WebDriver webDriver) {
 		this.driver = webDriver;
-		wait = new WebDriverWait(webDriver, timeoutDuration, ConfigProvider.getAsInt("PollingInterval")).ignoreAll(addIgnoredExceptions());
+		wait = new WebDriverWait(webDriver, timeoutDuration, Config.POLLING_INTERVAL.toMillis()).ignoreAll(addIgnoredExceptions());
 		javascriptExecutor = (JavascriptExecutor) driver;
 		PageFactory.initElements(driver, this);
 		new AssertionLibrary(webDriver);
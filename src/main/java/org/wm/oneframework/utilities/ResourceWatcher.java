@@ -0,0 +1,140 @@
+package org.wm.oneframework.utilities;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Watches folders(and their sub folders) for created or modified files on a background daemon thread. Events are
+ * collected until the folders are quiet for a short while, so a file saved in several writes is reported once, after
+ * the last write.
+ */
+public class ResourceWatcher implements Closeable {
+
+	private static final long QUIET_PERIOD_MILLIS = 500;
+	private static Logger logger = LogManager.getLogger(ResourceWatcher.class.getName());
+
+	private final WatchService watchService;
+	private final Map<WatchKey, Path> watchedFolders = new ConcurrentHashMap<>();
+	private final Consumer<File> onChange;
+	private final Thread watcherThread;
+
+	/**
+	 * @param folders
+	 *            folders to watch, missing folders are skipped
+	 * @param onChange
+	 *            called with every changed file, on the watcher thread
+	 * @throws IOException
+	 */
+	public ResourceWatcher(Collection<File> folders, Consumer<File> onChange) throws IOException {
+		this.watchService = FileSystems.getDefault().newWatchService();
+		this.onChange = onChange;
+		for (File folder : folders) {
+			if (folder.isDirectory()) {
+				registerTree(folder.toPath());
+			} else {
+				logger.warn("Not watching '" + folder + "', it is not a folder.");
+			}
+		}
+		watcherThread = new Thread(this::watch, "resource-watcher");
+		watcherThread.setDaemon(true);
+		watcherThread.start();
+	}
+
+	private void registerTree(Path root) throws IOException {
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				watchedFolders.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY), dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void watch() {
+		Set<Path> changedFiles = new LinkedHashSet<>();
+		try {
+			while (true) {
+				WatchKey key = changedFiles.isEmpty() ? watchService.take() : watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+				if (key == null) {
+					dispatch(changedFiles);
+					changedFiles.clear();
+					continue;
+				}
+				collect(key, changedFiles);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ClosedWatchServiceException e) {
+			logger.debug("Resource watcher closed.");
+		}
+	}
+
+	private void collect(WatchKey key, Set<Path> changedFiles) {
+		Path folder = watchedFolders.get(key);
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == OVERFLOW || folder == null) {
+				continue;
+			}
+			Path changed = folder.resolve((Path) event.context());
+			if (Files.isDirectory(changed)) {
+				if (event.kind() == ENTRY_CREATE) {
+					try {
+						registerTree(changed);
+					} catch (IOException e) {
+						logger.warn("Not able to watch '" + changed + "': " + e.getMessage());
+					}
+				}
+			} else {
+				changedFiles.add(changed);
+			}
+		}
+		if (!key.reset()) {
+			watchedFolders.remove(key);
+		}
+	}
+
+	private void dispatch(Set<Path> changedFiles) {
+		for (Path changed : changedFiles) {
+			if (Files.isRegularFile(changed)) {
+				try {
+					onChange.accept(changed.toFile());
+				} catch (RuntimeException e) {
+					logger.error("Not able to reload '" + changed + "': " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+		watcherThread.interrupt();
+	}
+
+}
@@ -0,0 +1,286 @@
+package org.wm.oneframework.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wm.oneframework.configprovider.ConfigProvider;
+import org.wm.oneframework.configprovider.ConfigStats;
+
+/**
+ * Configuration reads from parallel tests, while properties are reloaded or set.
+ */
+public class ConfigProviderTest {
+
+	private static final int READERS = 8;
+	private static final int RELOADS = 200;
+	private File propertiesFolder;
+
+	@BeforeClass
+	public void createProperties() throws IOException {
+		propertiesFolder = Files.createTempDirectory("config-properties").toFile();
+		write("config.timeout=0\nconfig.name=first\n");
+		System.setProperty("config.properties.dir", propertiesFolder.getAbsolutePath());
+		ConfigProvider.reload(getPropertiesFile());
+	}
+
+	@Test
+	public void readsDuringReloadsNeverSeeMissingValues() throws Exception {
+		Assert.assertEquals(ConfigProvider.getAsString("config.name"), "first");
+		Assert.assertEquals(ConfigProvider.getAsString("configtest", "config.name"), "first");
+		AtomicBoolean reloading = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(READERS);
+		try {
+			List<Future<Integer>> readers = new ArrayList<>();
+			for (int i = 0; i < READERS; i++) {
+				readers.add(executor.submit(reader(reloading)));
+			}
+			for (int i = 1; i <= RELOADS; i++) {
+				write("config.timeout=" + i + "\nconfig.name=run" + i + "\n");
+				ConfigProvider.reload(getPropertiesFile());
+			}
+			reloading.set(false);
+			for (Future<Integer> reads : readers) {
+				Assert.assertTrue(reads.get() > 0);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		Assert.assertEquals(ConfigProvider.getAsInt("config.timeout"), RELOADS);
+		Assert.assertEquals(ConfigProvider.getAsString("configtest", "config.name"), "run" + RELOADS);
+	}
+
+	private static Callable<Integer> reader(AtomicBoolean reloading) {
+		return () -> {
+			int reads = 0;
+			int lastTimeout = 0;
+			while (reloading.get()) {
+				int timeout = ConfigProvider.getAsInt("config.timeout");
+				Assert.assertNotNull(ConfigProvider.getAsString("config.name"));
+				Assert.assertNotNull(ConfigProvider.getAsString("configtest", "config.name"));
+				Assert.assertTrue(timeout >= lastTimeout, "Went back from " + lastTimeout + " to " + timeout);
+				lastTimeout = timeout;
+				reads++;
+			}
+			return reads;
+		};
+	}
+
+	@Test
+	public void collidingKeysResolveToTheLastFile() throws IOException {
+		File firstFile = new File(propertiesFolder, "collision-a.properties");
+		File lastFile = new File(propertiesFolder, "collision-z.properties");
+		Files.write(firstFile.toPath(), "config.collision=a\nconfig.only.a=a\n".getBytes(StandardCharsets.ISO_8859_1));
+		Files.write(lastFile.toPath(), "config.collision=z\n".getBytes(StandardCharsets.ISO_8859_1));
+		try {
+			ConfigProvider.reload(lastFile);
+			Assert.assertEquals(ConfigProvider.getAsString("config.collision"), "z");
+			Assert.assertEquals(ConfigProvider.getAsString("config.only.a"), "a");
+			Assert.assertEquals(ConfigProvider.getKeyCollisions().get("config.collision"), Arrays.asList("collision-a.properties", "collision-z.properties"));
+			Assert.assertFalse(ConfigProvider.getKeyCollisions().containsKey("config.only.a"));
+		} finally {
+			firstFile.delete();
+			lastFile.delete();
+			ConfigProvider.reload(lastFile);
+		}
+		Assert.assertNull(ConfigProvider.getAsString("config.collision"));
+	}
+
+	@Test
+	public void systemPropertiesNeedAnEnvironment() throws IOException {
+		File environmentFolder = new File(propertiesFolder, "uat");
+		environmentFolder.mkdir();
+		try {
+			System.setProperty("config.system.only", "7");
+			Assert.assertNull(ConfigProvider.getAsString("config.system.only"));
+			Assert.assertEquals(ConfigProvider.getAsInt("config.system.only"), 0);
+			ConfigProvider.setEnvironment("uat");
+			Assert.assertEquals(ConfigProvider.getAsInt("config.system.only"), 7);
+			System.setProperty("config.system.only", "8");
+			Assert.assertEquals(ConfigProvider.getAsInt("config.system.only"), 8);
+			ConfigProvider.setProperty("config.system.only", "9");
+			Assert.assertEquals(ConfigProvider.getAsString("config.system.only"), "9");
+		} finally {
+			ConfigProvider.setEnvironment(null);
+			System.clearProperty("config.system.only");
+			ConfigProvider.reload(getPropertiesFile());
+			environmentFolder.delete();
+		}
+	}
+
+	@Test
+	public void environmentLayersOverrideDefaults() throws IOException {
+		File environmentFolder = new File(propertiesFolder, "qa");
+		environmentFolder.mkdir();
+		Files.write(new File(environmentFolder, "common.properties").toPath(), "config.name=qa\nconfig.env=qa\n".getBytes(StandardCharsets.ISO_8859_1));
+		Files.write(new File(environmentFolder, "configtest.properties").toPath(), "config.name=qa-file\n".getBytes(StandardCharsets.ISO_8859_1));
+		String defaultName = ConfigProvider.getAsString("configtest", "config.name");
+		try {
+			ConfigProvider.setEnvironment("qa");
+			Assert.assertEquals(ConfigProvider.getAsString("config.name"), "qa");
+			Assert.assertEquals(ConfigProvider.getAsString("config.timeout"), ConfigProvider.getAsString("configtest", "config.timeout"));
+			Assert.assertEquals(ConfigProvider.getAsString("qa", "configtest", "config.env"), "qa");
+			Assert.assertEquals(ConfigProvider.getAsString("qa", "configtest", "config.name"), "qa-file");
+			System.setProperty("config.name", "system");
+			Assert.assertEquals(ConfigProvider.getAsString("qa", "configtest", "config.name"), "system");
+			Assert.assertEquals(ConfigProvider.getAsString("config.name"), "system");
+			System.setProperty("config.name", "changed");
+			Assert.assertEquals(ConfigProvider.getAsString("config.name"), "changed");
+			ConfigProvider.setEnvironment(null);
+			Assert.assertEquals(ConfigProvider.getAsString("config.name"), defaultName);
+			Assert.assertNull(ConfigProvider.getAsString("config.env"));
+		} finally {
+			ConfigProvider.setEnvironment(null);
+			System.clearProperty("config.name");
+			ConfigProvider.reload(getPropertiesFile());
+			new File(environmentFolder, "common.properties").delete();
+			new File(environmentFolder, "configtest.properties").delete();
+			environmentFolder.delete();
+		}
+		Assert.assertEquals(ConfigProvider.getAsString("config.name"), defaultName);
+	}
+
+	@Test
+	public void typedValuesAreParsedAndRefreshed() {
+		ConfigProvider.setProperty("config.typed.int", " 42");
+		ConfigProvider.setProperty("config.typed.long", "12345678901");
+		ConfigProvider.setProperty("config.typed.boolean", "TRUE");
+		ConfigProvider.setProperty("config.typed.millis", "500ms");
+		ConfigProvider.setProperty("config.typed.seconds", "30");
+		ConfigProvider.setProperty("config.typed.iso", "PT2M");
+		ConfigProvider.setProperty("config.typed.enum", "seconds");
+		ConfigProvider.setProperty("config.typed.list", "chrome, firefox,,ie ");
+		Assert.assertEquals(ConfigProvider.getAsInt("config.typed.int"), 42);
+		Assert.assertEquals(ConfigProvider.getAsLong("config.typed.long"), 12345678901L);
+		Assert.assertTrue(ConfigProvider.getAsBoolean("config.typed.boolean"));
+		Assert.assertEquals(ConfigProvider.getAsDuration("config.typed.millis", ChronoUnit.SECONDS), Duration.ofMillis(500));
+		Assert.assertEquals(ConfigProvider.getAsDuration("config.typed.seconds", ChronoUnit.SECONDS), Duration.ofSeconds(30));
+		Assert.assertEquals(ConfigProvider.getAsDuration("config.typed.seconds", ChronoUnit.MILLIS), Duration.ofMillis(30));
+		Assert.assertEquals(ConfigProvider.getAsDuration("config.typed.iso", ChronoUnit.SECONDS), Duration.ofMinutes(2));
+		Assert.assertEquals(ConfigProvider.getAsEnum("config.typed.enum", TimeUnit.class), TimeUnit.SECONDS);
+		Assert.assertEquals(ConfigProvider.getAsList("config.typed.list"), Arrays.asList("chrome", "firefox", "ie"));
+		Assert.assertEquals(ConfigProvider.getAsInt("config.typed.missing"), 0);
+		Assert.assertFalse(ConfigProvider.getAsBoolean("config.typed.missing"));
+		Assert.assertEquals(ConfigProvider.getAsDuration("config.typed.missing", ChronoUnit.SECONDS), Duration.ZERO);
+		Assert.assertNull(ConfigProvider.getAsEnum("config.typed.missing", TimeUnit.class));
+		Assert.assertTrue(ConfigProvider.getAsList("config.typed.missing").isEmpty());
+		ConfigProvider.setProperty("config.typed.int", "43");
+		Assert.assertEquals(ConfigProvider.getAsInt("config.typed.int"), 43);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void invalidDurationIsRejected() {
+		ConfigProvider.setProperty("config.typed.invalid", "10 parsecs");
+		ConfigProvider.getAsDuration("config.typed.invalid", ChronoUnit.SECONDS);
+	}
+
+	@Test
+	public void lookupsAreCountedPerKey() throws JMException {
+		ConfigStats stats = ConfigStats.getInstance();
+		ConfigProvider.setProperty("config.stats.hot", "5");
+		for (int i = 0; i < 10; i++) {
+			ConfigProvider.getAsString("config.stats.hot");
+			ConfigProvider.getAsInt("config.stats.hot");
+		}
+		for (int i = 0; i < 3; i++) {
+			ConfigProvider.getAsString("config.stats.missing");
+		}
+		Assert.assertEquals(stats.getLookupCounts().get("config.stats.hot"), Long.valueOf(20));
+		Assert.assertNull(stats.getMissingKeys().get("config.stats.hot"));
+		Assert.assertEquals(stats.getMissingKeys().get("config.stats.missing"), Long.valueOf(3));
+		Assert.assertTrue(stats.report(100).contains("config.stats.missing: 3"));
+		ConfigStats.registerMBean();
+		ConfigStats.registerMBean();
+		Object totalLookups = ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName(ConfigStats.MBEAN_NAME), "TotalLookups");
+		Assert.assertTrue((Long) totalLookups >= 23);
+	}
+
+	@Test
+	public void setPropertySurvivesReload() throws IOException {
+		ConfigProvider.setProperty("config.runtime", "set");
+		ConfigProvider.reload(getPropertiesFile());
+		Assert.assertEquals(ConfigProvider.getAsString("config.runtime"), "set");
+	}
+
+	@Test
+	public void filesAreOnlyLoadedByTheFirstLookupOfTheirKeys() throws IOException {
+		File lazyFile = new File(propertiesFolder, "lazy.properties");
+		Files.write(lazyFile.toPath(), "config.lazy=indexed\n".getBytes(StandardCharsets.ISO_8859_1));
+		try {
+			ConfigProvider.reload(lazyFile);
+			Assert.assertNotNull(ConfigProvider.getAsString("config.timeout"));
+			Files.write(lazyFile.toPath(), "config.lazy=looked-up\n".getBytes(StandardCharsets.ISO_8859_1));
+			Assert.assertEquals(ConfigProvider.getAsString("config.lazy"), "looked-up");
+		} finally {
+			lazyFile.delete();
+			ConfigProvider.reload(lazyFile);
+		}
+		Assert.assertNull(ConfigProvider.getAsString("config.lazy"));
+	}
+
+	@Test
+	public void storedIndexNoticesEditsKeepingSizeAndTime() throws IOException {
+		File indexFolder = Files.createTempDirectory("config-index").toFile();
+		System.setProperty("config.index.dir", indexFolder.getAbsolutePath());
+		try {
+			write("config.timeout=0\nconfig.index.a=1\n");
+			long lastModified = getPropertiesFile().lastModified();
+			ConfigProvider.reload(getPropertiesFile());
+			Assert.assertEquals(ConfigProvider.getAsString("config.index.a"), "1");
+			Assert.assertEquals(indexFolder.listFiles().length, 1);
+			write("config.timeout=0\nconfig.index.b=1\n");
+			Assert.assertTrue(getPropertiesFile().setLastModified(lastModified));
+			ConfigProvider.reload(getPropertiesFile());
+			Assert.assertEquals(ConfigProvider.getAsString("config.index.b"), "1");
+			Assert.assertNull(ConfigProvider.getAsString("config.index.a"));
+		} finally {
+			System.clearProperty("config.index.dir");
+			for (File indexFile : indexFolder.listFiles()) {
+				indexFile.delete();
+			}
+			indexFolder.delete();
+			write("config.timeout=0\nconfig.name=first\n");
+			ConfigProvider.reload(getPropertiesFile());
+		}
+	}
+
+	private File getPropertiesFile() {
+		return new File(propertiesFolder, "configtest.properties");
+	}
+
+	private void write(String content) throws IOException {
+		File partFile = new File(propertiesFolder, "configtest.part");
+		Files.write(partFile.toPath(), content.getBytes(StandardCharsets.ISO_8859_1));
+		Files.move(partFile.toPath(), getPropertiesFile().toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void deleteProperties() {
+		System.clearProperty("config.properties.dir");
+		ConfigProvider.reload(getPropertiesFile());
+		getPropertiesFile().delete();
+		propertiesFolder.delete();
+	}
+
+}
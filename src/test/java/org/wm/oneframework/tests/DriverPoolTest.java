@@ -0,0 +1,203 @@
+package org.wm.oneframework.tests;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wm.oneframewok.seleniumadapter.drivers.DriverManager;
+import org.wm.oneframewok.seleniumadapter.drivers.DriverPool;
+
+/**
+ * Leasing, reset and retirement of pooled browser sessions, against fake browsers recording the calls they get.
+ */
+public class DriverPoolTest {
+
+	private final List<FakeBrowser> launched = Collections.synchronizedList(new ArrayList<>());
+
+	@Test
+	public void returnedSessionIsResetAndReused() {
+		DriverPool pool = newPool(2, Duration.ofMinutes(5), 10);
+		WebDriver first = pool.lease();
+		FakeBrowser browser = launched.get(0);
+		browser.windows.add("popup");
+		pool.release(first);
+		Assert.assertEquals(pool.lease(), first);
+		Assert.assertEquals(launched.size(), 1);
+		Assert.assertTrue(browser.cookiesDeleted);
+		Assert.assertTrue(browser.storageCleared);
+		Assert.assertEquals(browser.windows.size(), 1);
+		Assert.assertEquals(browser.url, "about:blank");
+		pool.close();
+	}
+
+	@Test
+	public void sessionIsQuitAfterMaxReuse() {
+		DriverPool pool = newPool(1, Duration.ofMinutes(5), 2);
+		WebDriver first = pool.lease();
+		pool.release(first);
+		Assert.assertEquals(pool.lease(), first);
+		pool.release(first);
+		Assert.assertTrue(launched.get(0).quit);
+		Assert.assertNotEquals(pool.lease(), first);
+		Assert.assertEquals(launched.size(), 2);
+	}
+
+	@Test
+	public void expiredSessionIsNotLeased() throws InterruptedException {
+		DriverPool pool = newPool(1, Duration.ofMillis(50), 10);
+		pool.prelaunch(1);
+		Thread.sleep(100);
+		pool.lease();
+		Assert.assertTrue(launched.get(0).quit);
+		Assert.assertEquals(launched.size(), 2);
+	}
+
+	@Test
+	public void sessionFailingItsResetIsQuit() {
+		DriverPool pool = newPool(1, Duration.ofMinutes(5), 10);
+		WebDriver first = pool.lease();
+		launched.get(0).crashed = true;
+		pool.release(first);
+		Assert.assertTrue(launched.get(0).quit);
+		Assert.assertNotEquals(pool.lease(), first);
+	}
+
+	@Test(expectedExceptions = WebDriverException.class)
+	public void leaseWaitsForAReturnedSession() {
+		DriverPool pool = new DriverPool(this::newManager, 1, Duration.ofMinutes(5), 10, Duration.ofMillis(100));
+		pool.lease();
+		pool.lease();
+	}
+
+	@Test
+	public void prelaunchStopsAtPoolSize() {
+		DriverPool pool = newPool(2, Duration.ofMinutes(5), 10);
+		pool.prelaunch(5);
+		Assert.assertEquals(launched.size(), 2);
+		pool.lease();
+		pool.lease();
+		Assert.assertEquals(launched.size(), 2);
+		pool.close();
+	}
+
+	@Test
+	public void leaseAwaitsPrelaunchedSessions() {
+		DriverPool pool = newPool(2, Duration.ofMinutes(5), 10);
+		Executor slowStart = task -> new Thread(() -> {
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			task.run();
+		}).start();
+		CompletableFuture<Void> prelaunch = pool.prelaunchAsync(5, slowStart);
+		Assert.assertTrue(launched.isEmpty());
+		WebDriver first = pool.lease();
+		WebDriver second = pool.lease();
+		Assert.assertNotEquals(first, second);
+		prelaunch.join();
+		Assert.assertEquals(launched.size(), 2);
+		pool.close();
+	}
+
+	private DriverPool newPool(int size, Duration maxAge, int maxReuse) {
+		launched.clear();
+		return new DriverPool(this::newManager, size, maxAge, maxReuse, Duration.ofSeconds(5));
+	}
+
+	private DriverManager newManager() {
+		return new DriverManager() {
+
+			@Override
+			protected void startService() {
+			}
+
+			@Override
+			protected void createDriver() {
+				FakeBrowser browser = new FakeBrowser();
+				launched.add(browser);
+				driver = browser.driver;
+			}
+
+			@Override
+			public void stopService() {
+				driver.quit();
+			}
+		};
+	}
+
+	/**
+	 * Browser recording the calls of a pool reset, every call but quit fails once it crashed.
+	 */
+	private static final class FakeBrowser {
+
+		private final Set<String> windows = new LinkedHashSet<>();
+		private String current = "main";
+		private String url;
+		private boolean cookiesDeleted;
+		private boolean storageCleared;
+		private boolean quit;
+		private boolean crashed;
+		private final WebDriver driver;
+
+		FakeBrowser() {
+			windows.add("main");
+			driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { WebDriver.class, JavascriptExecutor.class }, (proxy, method, args) -> {
+				switch (method.getName()) {
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "equals":
+					return proxy == args[0];
+				case "toString":
+					return "FakeBrowser@" + System.identityHashCode(proxy);
+				case "quit":
+					quit = true;
+					return null;
+				default:
+					break;
+				}
+				if (crashed) {
+					throw new WebDriverException("Browser crashed.");
+				}
+				switch (method.getName()) {
+				case "getWindowHandles":
+					return new LinkedHashSet<>(windows);
+				case "switchTo":
+					return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { WebDriver.TargetLocator.class }, (locator, locatorMethod, locatorArgs) -> {
+						current = (String) locatorArgs[0];
+						return proxy;
+					});
+				case "close":
+					windows.remove(current);
+					return null;
+				case "manage":
+					return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { WebDriver.Options.class }, (options, optionsMethod, optionsArgs) -> {
+						cookiesDeleted |= "deleteAllCookies".equals(optionsMethod.getName());
+						return null;
+					});
+				case "executeScript":
+					storageCleared = true;
+					return null;
+				case "get":
+					url = (String) args[0];
+					return null;
+				default:
+					return null;
+				}
+			});
+		}
+	}
+
+}
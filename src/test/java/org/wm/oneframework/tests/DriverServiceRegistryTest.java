@@ -0,0 +1,208 @@
+package org.wm.oneframework.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.service.DriverService;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wm.oneframewok.seleniumadapter.drivers.DriverServiceRegistry;
+import org.wm.oneframewok.seleniumadapter.drivers.SessionServices;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Sharing of one driver service per browser type, against a fake service counting its starts and stops. Typed sessions
+ * are created against a stub driver endpoint answering the new session and quit commands.
+ */
+public class DriverServiceRegistryTest {
+
+	@Test
+	public void serviceIsStartedOnceAndStoppedByLastRelease() throws IOException {
+		FakeService service = new FakeService();
+		FakeService first = DriverServiceRegistry.acquire("fake-shared", () -> service);
+		FakeService second = DriverServiceRegistry.acquire("fake-shared", FakeService::create);
+		Assert.assertSame(first, service);
+		Assert.assertSame(second, service);
+		Assert.assertEquals(service.starts, 1);
+		Assert.assertEquals(DriverServiceRegistry.getReferences("fake-shared"), 2);
+
+		DriverServiceRegistry.release("fake-shared");
+		Assert.assertTrue(service.isRunning());
+		DriverServiceRegistry.release("fake-shared");
+		Assert.assertFalse(service.isRunning());
+		Assert.assertEquals(service.stops, 1);
+		Assert.assertEquals(DriverServiceRegistry.getReferences("fake-shared"), 0);
+	}
+
+	@Test
+	public void stoppedServiceIsReplaced() throws IOException {
+		FakeService service = new FakeService();
+		DriverServiceRegistry.acquire("fake-crashed", () -> service);
+		service.stop();
+		FakeService replacement = new FakeService();
+		Assert.assertSame(DriverServiceRegistry.acquire("fake-crashed", () -> replacement), replacement);
+		Assert.assertTrue(replacement.isRunning());
+		DriverServiceRegistry.release("fake-crashed");
+		DriverServiceRegistry.release("fake-crashed");
+		Assert.assertFalse(replacement.isRunning());
+	}
+
+	@Test
+	public void quittingASessionKeepsTheSharedServiceRunning() throws IOException {
+		AtomicInteger sessions = new AtomicInteger();
+		AtomicInteger quits = new AtomicInteger();
+		HttpServer endpoint = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		endpoint.createContext("/session", exchange -> {
+			if ("POST".equals(exchange.getRequestMethod())) {
+				respond(exchange, "{\"value\":{\"sessionId\":\"session-" + sessions.incrementAndGet() + "\",\"capabilities\":{\"browserName\":\"fake\"}}}");
+			} else {
+				quits.incrementAndGet();
+				respond(exchange, "{\"value\":null}");
+			}
+		});
+		endpoint.start();
+		try {
+			FakeChromeService service = new FakeChromeService(endpoint.getAddress().getPort());
+			DriverServiceRegistry.acquire("fake-sessions", () -> service);
+			DriverServiceRegistry.acquire("fake-sessions", FakeService::create);
+			ChromeDriver first = new ChromeDriver(SessionServices.chrome(service), new ChromeOptions());
+			ChromeDriver second = new ChromeDriver(SessionServices.chrome(service), new ChromeOptions());
+			Assert.assertEquals(sessions.get(), 2);
+			Assert.assertEquals(service.starts, 1);
+
+			first.quit();
+			Assert.assertEquals(quits.get(), 1);
+			Assert.assertTrue(service.isRunning());
+			Assert.assertEquals(service.stops, 0);
+			DriverServiceRegistry.release("fake-sessions");
+
+			second.quit();
+			Assert.assertEquals(quits.get(), 2);
+			Assert.assertTrue(service.isRunning());
+			DriverServiceRegistry.release("fake-sessions");
+			Assert.assertFalse(service.isRunning());
+			Assert.assertEquals(service.stops, 1);
+		} finally {
+			endpoint.stop(0);
+		}
+	}
+
+	@Test
+	public void serviceFailingToStartIsNotShared() throws IOException {
+		FailingService failing = new FailingService();
+		try {
+			DriverServiceRegistry.acquire("fake-failing", () -> failing);
+			Assert.fail("The start failure must reach the caller.");
+		} catch (WebDriverException e) {
+			Assert.assertTrue(e.getCause() instanceof IOException);
+		}
+		Assert.assertEquals(DriverServiceRegistry.getReferences("fake-failing"), 0);
+		FakeService service = new FakeService();
+		Assert.assertSame(DriverServiceRegistry.acquire("fake-failing", () -> service), service);
+		DriverServiceRegistry.release("fake-failing");
+		Assert.assertFalse(service.isRunning());
+	}
+
+	private static void respond(HttpExchange exchange, String json) throws IOException {
+		byte[] body = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(body);
+		}
+	}
+
+	private static final class FakeService extends DriverService {
+
+		private boolean running;
+		private int starts;
+		private int stops;
+
+		FakeService() throws IOException {
+			super(new File("fake-driver"), 0, ImmutableList.of(), ImmutableMap.of());
+		}
+
+		static FakeService create() {
+			try {
+				return new FakeService();
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public void start() {
+			running = true;
+			starts++;
+		}
+
+		@Override
+		public void stop() {
+			running = false;
+			stops++;
+		}
+
+		@Override
+		public boolean isRunning() {
+			return running;
+		}
+	}
+
+	private static final class FakeChromeService extends ChromeDriverService {
+
+		private boolean running;
+		private int starts;
+		private int stops;
+
+		FakeChromeService(int port) throws IOException {
+			super(new File("fake-chromedriver"), port, ImmutableList.of(), ImmutableMap.of());
+		}
+
+		@Override
+		public void start() {
+			running = true;
+			starts++;
+		}
+
+		@Override
+		public void stop() {
+			running = false;
+			stops++;
+		}
+
+		@Override
+		public boolean isRunning() {
+			return running;
+		}
+	}
+
+	private static final class FailingService extends DriverService {
+
+		FailingService() throws IOException {
+			super(new File("fake-driver"), 0, ImmutableList.of(), ImmutableMap.of());
+		}
+
+		@Override
+		public void start() throws IOException {
+			throw new IOException("fake-driver not found");
+		}
+
+		@Override
+		public boolean isRunning() {
+			return false;
+		}
+	}
+
+}
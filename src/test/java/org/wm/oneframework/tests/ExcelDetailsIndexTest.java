@@ -0,0 +1,46 @@
+package org.wm.oneframework.tests;
+
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wm.oneframework.excelreader.ExcelDetailsIndex;
+import org.wm.oneframework.excelreader.ExcelSource;
+
+/**
+ * The index generated while compiling the tests must resolve @ExcelDetails the same way as reflection did.
+ */
+public class ExcelDetailsIndexTest {
+
+	@Test
+	public void indexIsGeneratedForTheTestClasses() {
+		Assert.assertNotNull(Thread.currentThread().getContextClassLoader().getResource(ExcelDetailsIndex.INDEX_RESOURCE));
+	}
+
+	@Test
+	public void classDetailsDefaultToTheClassName() {
+		ExcelSource excelSource = ExcelDetailsIndex.forClass(ReadExcelData.class);
+		Assert.assertEquals(excelSource.getExcelName(), "ReadExcelData");
+		Assert.assertEquals(excelSource.getSheetName(), "Sheet1");
+		Assert.assertEquals(excelSource.getFilter(), "");
+		Assert.assertNull(ExcelDetailsIndex.forClass(ExcelRowFilterTest.class));
+	}
+
+	@Test
+	public void methodDetailsAreIndexedByMethodName() throws NoSuchMethodException {
+		ExcelSource excelSource = ExcelDetailsIndex.forMethod(ExcelShardingTest.class.getMethod("shardedRows"));
+		Assert.assertEquals(excelSource.getExcelName(), "Sharded");
+		Assert.assertEquals(excelSource.getFilter(), "Amount > 30");
+		Assert.assertNull(ExcelDetailsIndex.forMethod(ExcelShardingTest.class.getMethod("cleanup")));
+		Map<String, ExcelSource> methods = ExcelDetailsIndex.getMethods(ReadExcelData.class);
+		Assert.assertEquals(methods.get("readExcelData_Test4").getExcelName(), "testdata");
+		Assert.assertEquals(methods.get("readExcelData_Test4").getSheetName(), "data");
+	}
+
+	@Test
+	public void classesMissingFromTheIndexAreReflected() throws NoSuchMethodException {
+		Assert.assertNull(ExcelDetailsIndex.forClass(ExcelDetailsIndexTest.class));
+		Assert.assertNull(ExcelDetailsIndex.forMethod(ExcelDetailsIndexTest.class.getMethod("classesMissingFromTheIndexAreReflected")));
+	}
+
+}
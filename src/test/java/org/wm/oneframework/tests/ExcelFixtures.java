@@ -0,0 +1,114 @@
+package org.wm.oneframework.tests;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Generates workbooks for the excel reader tests. Every row is self describing, so readers can verify that each value
+ * landed in the right sheet, row and column: Sheet, Row, Value(sheet:row) and Amount(row * 3).
+ */
+public final class ExcelFixtures {
+
+	private ExcelFixtures() {
+	}
+
+	/**
+	 * Writes an .xls workbook if the file name ends with .xls, an .xlsx workbook otherwise.
+	 */
+	public static void writeWorkbook(File file, int sheets, int rows) throws IOException {
+		if (file.getName().endsWith(".xls")) {
+			try (Workbook workbook = new HSSFWorkbook(); OutputStream os = new FileOutputStream(file)) {
+				writeSheets(workbook, sheets, rows);
+				workbook.write(os);
+			}
+			return;
+		}
+		SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+		try (OutputStream os = new FileOutputStream(file)) {
+			writeSheets(workbook, sheets, rows);
+			workbook.write(os);
+		} finally {
+			workbook.dispose();
+			workbook.close();
+		}
+	}
+
+	/**
+	 * Writes a workbook(.xls or .xlsx by file name) with a 'Formulas' sheet of Price, Qty and formula columns: Total
+	 * (numeric, 0.00 format), Expensive(boolean), Label(text) and Broken(#DIV/0! error). The formula results are
+	 * evaluated and saved in the file, as Excel does.
+	 */
+	public static void writeFormulaWorkbook(File file, int rows) throws IOException {
+		try (Workbook workbook = file.getName().endsWith(".xls") ? new HSSFWorkbook() : new XSSFWorkbook();
+				OutputStream os = new FileOutputStream(file)) {
+			Sheet sheet = workbook.createSheet("Formulas");
+			String[] headers = { "Price", "Qty", "Total", "Expensive", "Label", "Broken" };
+			Row header = sheet.createRow(0);
+			for (int i = 0; i < headers.length; i++) {
+				header.createCell(i).setCellValue(headers[i]);
+			}
+			CellStyle twoDecimals = workbook.createCellStyle();
+			twoDecimals.setDataFormat(workbook.createDataFormat().getFormat("0.00"));
+			for (int r = 1; r <= rows; r++) {
+				int excelRow = r + 1;
+				Row row = sheet.createRow(r);
+				row.createCell(0).setCellValue(r * 1.5);
+				row.createCell(1).setCellValue(r % 4);
+				Cell total = row.createCell(2);
+				total.setCellFormula("A" + excelRow + "*B" + excelRow);
+				total.setCellStyle(twoDecimals);
+				row.createCell(3).setCellFormula("C" + excelRow + ">100");
+				row.createCell(4).setCellFormula("\"Item\"&B" + excelRow);
+				row.createCell(5).setCellFormula("A" + excelRow + "/0");
+			}
+			workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+			workbook.write(os);
+		}
+	}
+
+	/**
+	 * Writes the rows of sheet 'Sheet1' as delimited text with CRLF line endings.
+	 */
+	public static void writeDelimited(File file, char delimiter, int rows) throws IOException {
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+			writer.write("Sheet" + delimiter + "Row" + delimiter + "Value" + delimiter + "Amount\r\n");
+			for (int r = 1; r <= rows; r++) {
+				writer.write("Sheet1" + delimiter + r + delimiter + "Sheet1:" + r + delimiter + (r * 3) + "\r\n");
+			}
+		}
+	}
+
+	private static void writeSheets(Workbook workbook, int sheets, int rows) {
+		for (int s = 0; s < sheets; s++) {
+			String sheetName = "Sheet" + s;
+			Sheet sheet = workbook.createSheet(sheetName);
+			Row header = sheet.createRow(0);
+			header.createCell(0).setCellValue("Sheet");
+			header.createCell(1).setCellValue("Row");
+			header.createCell(2).setCellValue("Value");
+			header.createCell(3).setCellValue("Amount");
+			for (int r = 1; r <= rows; r++) {
+				Row row = sheet.createRow(r);
+				row.createCell(0).setCellValue(sheetName);
+				row.createCell(1).setCellValue(String.valueOf(r));
+				row.createCell(2).setCellValue(sheetName + ":" + r);
+				row.createCell(3).setCellValue(r * 3);
+			}
+		}
+	}
+
+}
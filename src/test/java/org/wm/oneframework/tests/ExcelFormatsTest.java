@@ -0,0 +1,111 @@
+package org.wm.oneframework.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wm.oneframework.excelreader.ReadExcel;
+import org.wm.oneframework.excelreader.SheetCache;
+
+/**
+ * Every reader(streaming and user model, .xls, .xlsx, .csv and .tsv) must produce the same rows for the same data.
+ */
+public class ExcelFormatsTest {
+
+	private static final int ROWS = 300;
+	private File dataFolder;
+
+	@BeforeClass
+	public void createWorkbooks() throws IOException {
+		dataFolder = Files.createTempDirectory("excel-formats").toFile();
+		ExcelFixtures.writeWorkbook(new File(dataFolder, "Legacy.xls"), 2, ROWS);
+		ExcelFixtures.writeWorkbook(new File(dataFolder, "Current.xlsx"), 2, ROWS);
+		ExcelFixtures.writeDelimited(new File(dataFolder, "Comma.csv"), ',', ROWS);
+		ExcelFixtures.writeDelimited(new File(dataFolder, "Tab.tsv"), '\t', ROWS);
+		ExcelFixtures.writeFormulaWorkbook(new File(dataFolder, "LegacyFormulas.xls"), ROWS);
+		ExcelFixtures.writeFormulaWorkbook(new File(dataFolder, "CurrentFormulas.xlsx"), ROWS);
+		Files.write(new File(dataFolder, "Quoted.csv").toPath(), ("\uFEFFName,Note\r\n\"Doe, John\",\"said \"\"hi\"\"\nand left\"\n\n,\"\"\r\nLast,no newline").getBytes(StandardCharsets.UTF_8));
+		System.setProperty("excel.data.dir", dataFolder.getAbsolutePath());
+		System.setProperty("excel.snapshots", "false");
+	}
+
+	@DataProvider(name = "formats")
+	public Object[][] formats() {
+		return new Object[][] { { "Legacy", "true" }, { "Legacy", "false" }, { "Current", "true" }, { "Current", "false" },
+				{ "Comma", "true" }, { "Comma", "false" }, { "Tab", "true" }, { "Tab", "false" } };
+	}
+
+	@Test(dataProvider = "formats")
+	public void readersProduceSameRows(String excelName, String streaming) {
+		System.setProperty("excel.streaming", streaming);
+		SheetCache.clear();
+		List<Map<String, String>> rows = ReadExcel.readData(excelName, "Sheet1");
+		Assert.assertEquals(rows.size(), ROWS);
+		for (int i = 0; i < rows.size(); i++) {
+			String rowNumber = String.valueOf(i + 1);
+			Assert.assertEquals(rows.get(i).get("Sheet"), "Sheet1");
+			Assert.assertEquals(rows.get(i).get("Row"), rowNumber);
+			Assert.assertEquals(rows.get(i).get("Value"), "Sheet1:" + rowNumber);
+			Assert.assertEquals(rows.get(i).get("Amount"), String.valueOf((i + 1) * 3));
+		}
+	}
+
+	@DataProvider(name = "formulaFormats")
+	public Object[][] formulaFormats() {
+		return new Object[][] { { "LegacyFormulas", "true" }, { "LegacyFormulas", "false" }, { "CurrentFormulas", "true" }, { "CurrentFormulas", "false" } };
+	}
+
+	@Test(dataProvider = "formulaFormats")
+	public void formulaResultsAreTyped(String excelName, String streaming) {
+		System.setProperty("excel.streaming", streaming);
+		SheetCache.clear();
+		List<Map<String, String>> rows = ReadExcel.readData(excelName, "Formulas");
+		Assert.assertEquals(rows.size(), ROWS);
+		for (int i = 0; i < rows.size(); i++) {
+			int r = i + 1;
+			double total = r * 1.5 * (r % 4);
+			Assert.assertEquals(rows.get(i).get("Total"), String.format("%.2f", total));
+			Assert.assertEquals(rows.get(i).get("Expensive"), String.valueOf(total > 100));
+			Assert.assertEquals(rows.get(i).get("Label"), "Item" + (r % 4));
+			Assert.assertEquals(rows.get(i).get("Broken"), "#DIV/0!");
+		}
+	}
+
+	@Test
+	public void delimitedTextFollowsRfc4180() {
+		SheetCache.clear();
+		List<Map<String, String>> rows = ReadExcel.readData("Quoted", "Quoted");
+		Assert.assertEquals(rows.size(), 3);
+		Assert.assertEquals(rows.get(0).get("Name"), "Doe, John");
+		Assert.assertEquals(rows.get(0).get("Note"), "said \"hi\"\nand left");
+		Assert.assertEquals(rows.get(1).get("Name"), "");
+		Assert.assertEquals(rows.get(1).get("Note"), "");
+		Assert.assertEquals(rows.get(2).get("Name"), "Last");
+		Assert.assertEquals(rows.get(2).get("Note"), "no newline");
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void cleanup() {
+		System.clearProperty("excel.data.dir");
+		System.clearProperty("excel.streaming");
+		System.clearProperty("excel.snapshots");
+		SheetCache.clear();
+		new File(dataFolder, "Legacy.xls").delete();
+		new File(dataFolder, "Current.xlsx").delete();
+		new File(dataFolder, "Comma.csv").delete();
+		new File(dataFolder, "Tab.tsv").delete();
+		new File(dataFolder, "Quoted.csv").delete();
+		new File(dataFolder, "LegacyFormulas.xls").delete();
+		new File(dataFolder, "CurrentFormulas.xlsx").delete();
+		dataFolder.delete();
+	}
+
+}
@@ -0,0 +1,96 @@
+package org.wm.oneframework.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wm.oneframework.excelreader.ReadExcel;
+import org.wm.oneframework.excelreader.SheetCache;
+
+/**
+ * Reads the sheets of one workbook from many threads at the same time and verifies that no thread sees rows of
+ * another sheet, lost rows or rows out of order. The cache is cleared on every invocation so the sheets are really
+ * parsed concurrently.
+ */
+public class ExcelReaderConcurrencyTest {
+
+	private static final String EXCEL_NAME = "Concurrency";
+	private static final int SHEETS = 8;
+	private static final int ROWS = 1000;
+	private File dataFolder;
+
+	@BeforeClass
+	public void createWorkbook() throws IOException {
+		dataFolder = Files.createTempDirectory("excel-concurrency").toFile();
+		ExcelFixtures.writeWorkbook(new File(dataFolder, EXCEL_NAME + ".xlsx"), SHEETS, ROWS);
+		System.setProperty("excel.data.dir", dataFolder.getAbsolutePath());
+		System.setProperty("excel.snapshots", "false");
+	}
+
+	@BeforeMethod
+	public void selectReader(Method method) {
+		System.setProperty("excel.streaming", String.valueOf(method.getName().startsWith("streaming")));
+	}
+
+	@Test(invocationCount = 64, threadPoolSize = 16)
+	public void streamingReadsKeepRowIntegrity() {
+		String sheetName = randomSheet();
+		SheetCache.clear();
+		verifyRows(sheetName, ReadExcel.readData(EXCEL_NAME, sheetName));
+		verifyRows(sheetName, toList(ReadExcel.getDataIterator(EXCEL_NAME, sheetName)));
+	}
+
+	@Test(invocationCount = 32, threadPoolSize = 16, dependsOnMethods = "streamingReadsKeepRowIntegrity")
+	public void workbookReadsKeepRowIntegrity() {
+		String sheetName = randomSheet();
+		SheetCache.clear();
+		verifyRows(sheetName, ReadExcel.readData(EXCEL_NAME, sheetName));
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void cleanup() {
+		System.clearProperty("excel.data.dir");
+		System.clearProperty("excel.streaming");
+		System.clearProperty("excel.snapshots");
+		SheetCache.clear();
+		new File(dataFolder, EXCEL_NAME + ".xlsx").delete();
+		dataFolder.delete();
+	}
+
+	private static String randomSheet() {
+		return "Sheet" + ThreadLocalRandom.current().nextInt(SHEETS);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Map<String, String>> toList(Iterator<Object[]> iterator) {
+		List<Map<String, String>> rows = new ArrayList<>();
+		while (iterator.hasNext()) {
+			rows.add((Map<String, String>) iterator.next()[0]);
+		}
+		return rows;
+	}
+
+	private static void verifyRows(String sheetName, List<Map<String, String>> rows) {
+		Assert.assertEquals(rows.size(), ROWS, "Row count of " + sheetName);
+		for (int i = 0; i < rows.size(); i++) {
+			Map<String, String> row = rows.get(i);
+			String rowNumber = String.valueOf(i + 1);
+			Assert.assertEquals(row.get("Sheet"), sheetName);
+			Assert.assertEquals(row.get("Row"), rowNumber);
+			Assert.assertEquals(row.get("Value"), sheetName + ":" + rowNumber);
+			Assert.assertEquals(row.get("Amount"), String.valueOf((i + 1) * 3));
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+package org.wm.oneframework.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wm.oneframework.annotation.ExcelDetails;
+import org.wm.oneframework.excelreader.ExcelDataProvider;
+import org.wm.oneframework.excelreader.ReadExcel;
+import org.wm.oneframework.excelreader.SheetCache;
+import org.wm.oneframework.exception.ExcelDetailException;
+
+/**
+ * Rows handed to the tests must be exactly the rows matching the filter of {@link ExcelDetails}, whichever way they
+ * are read.
+ */
+public class ExcelRowFilterTest {
+
+	private static final int ROWS = 100;
+	private File dataFolder;
+
+	@BeforeClass
+	public void createWorkbook() throws IOException {
+		dataFolder = Files.createTempDirectory("excel-filter").toFile();
+		ExcelFixtures.writeWorkbook(new File(dataFolder, "Filtered.xlsx"), 2, ROWS);
+		System.setProperty("excel.data.dir", dataFolder.getAbsolutePath());
+		System.setProperty("excel.snapshots", "false");
+		SheetCache.clear();
+	}
+
+	@SuppressWarnings("excel-details")
+	@ExcelDetails(excelName = "Filtered", filter = "Amount > 30 && Amount <= 60 && !(Row == '15') || Value == 'Sheet1:99'")
+	public void filteredRows() {
+	}
+
+	@Test
+	public void dataProviderHandsOnlyMatchingRows() throws NoSuchMethodException {
+		Method method = ExcelRowFilterTest.class.getMethod("filteredRows");
+		Object[][] data = new ExcelDataProvider(ExcelRowFilterTest.class).data(method);
+		Assert.assertEquals(rowNumbers(data), expectedRowNumbers());
+	}
+
+	@Test
+	public void lazyDataProviderHandsOnlyMatchingRows() throws NoSuchMethodException {
+		Method method = ExcelRowFilterTest.class.getMethod("filteredRows");
+		Iterator<Object[]> iterator = new ExcelDataProvider(ExcelRowFilterTest.class).lazyData(method);
+		List<Object[]> data = new ArrayList<>();
+		iterator.forEachRemaining(data::add);
+		Assert.assertEquals(rowNumbers(data.toArray(new Object[0][])), expectedRowNumbers());
+	}
+
+	@Test
+	public void backtickColumnsAndTextComparison() {
+		Object[][] data = ReadExcel.getData("Filtered", "Sheet1", "`Value` >= 'Sheet1:98' && Sheet != ''");
+		Assert.assertEquals(rowNumbers(data), Arrays.asList("98", "99"));
+	}
+
+	@Test(expectedExceptions = ExcelDetailException.class)
+	public void unknownColumnIsReported() {
+		ReadExcel.getData("Filtered", "Sheet1", "Status == 'Y'");
+	}
+
+	@Test(expectedExceptions = ExcelDetailException.class)
+	public void invalidExpressionIsReported() {
+		ReadExcel.getData("Filtered", "Sheet1", "Run == 'Y' &&");
+	}
+
+	private static List<String> expectedRowNumbers() {
+		List<String> rowNumbers = new ArrayList<>();
+		for (int r = 11; r <= 20; r++) {
+			if (r != 15) {
+				rowNumbers.add(String.valueOf(r));
+			}
+		}
+		rowNumbers.add("99");
+		return rowNumbers;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String> rowNumbers(Object[][] data) {
+		List<String> rowNumbers = new ArrayList<>();
+		for (Object[] row : data) {
+			rowNumbers.add(((Map<String, String>) row[0]).get("Row"));
+		}
+		return rowNumbers;
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void cleanup() {
+		System.clearProperty("excel.data.dir");
+		System.clearProperty("excel.snapshots");
+		SheetCache.clear();
+		new File(dataFolder, "Filtered.xlsx").delete();
+		dataFolder.delete();
+	}
+
+}
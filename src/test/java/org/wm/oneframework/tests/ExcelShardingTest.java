@@ -0,0 +1,125 @@
+package org.wm.oneframework.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wm.oneframework.annotation.ExcelDetails;
+import org.wm.oneframework.excelreader.ExcelDataProvider;
+import org.wm.oneframework.excelreader.ReadExcel;
+import org.wm.oneframework.excelreader.SheetCache;
+import org.wm.oneframework.excelreader.ShardSpec;
+
+/**
+ * The shards of a sheet must be disjoint, cover every row and be balanced by row count or by cost.
+ */
+public class ExcelShardingTest {
+
+	private static final int ROWS = 101;
+	private static final int SHARDS = 3;
+	private File dataFolder;
+
+	@BeforeClass
+	public void createWorkbook() throws IOException {
+		dataFolder = Files.createTempDirectory("excel-shards").toFile();
+		ExcelFixtures.writeWorkbook(new File(dataFolder, "Sharded.xlsx"), 2, ROWS);
+		System.setProperty("excel.data.dir", dataFolder.getAbsolutePath());
+		System.setProperty("excel.snapshots", "false");
+		SheetCache.clear();
+	}
+
+	@SuppressWarnings("excel-details")
+	@ExcelDetails(excelName = "Sharded", filter = "Amount > 30")
+	public void shardedRows() {
+	}
+
+	@Test
+	public void shardsAreDisjointAndBalancedByRowCount() {
+		List<List<Integer>> shards = readShards(null, null);
+		assertCoverEveryRow(shards, 1);
+		for (List<Integer> shard : shards) {
+			Assert.assertTrue(Math.abs(shard.size() - ROWS / SHARDS) <= 1, "Unbalanced shard of " + shard.size() + " rows.");
+		}
+	}
+
+	@Test
+	public void shardsAreBalancedByCost() {
+		List<List<Integer>> shards = readShards(null, "Amount");
+		assertCoverEveryRow(shards, 1);
+		long maxTotal = 0;
+		long minTotal = Long.MAX_VALUE;
+		for (List<Integer> shard : shards) {
+			long total = 0;
+			for (int row : shard) {
+				total += row * 3;
+			}
+			maxTotal = Math.max(maxTotal, total);
+			minTotal = Math.min(minTotal, total);
+		}
+		Assert.assertTrue(maxTotal - minTotal <= ROWS * 3, "Unbalanced cost " + minTotal + " to " + maxTotal + ".");
+	}
+
+	@Test
+	public void filteredRowsAreShardedFromSystemProperties() throws NoSuchMethodException {
+		Method method = ExcelShardingTest.class.getMethod("shardedRows");
+		List<List<Integer>> shards = new ArrayList<>();
+		try {
+			System.setProperty("shard.count", String.valueOf(SHARDS));
+			for (int index = 0; index < SHARDS; index++) {
+				System.setProperty("shard.index", String.valueOf(index));
+				shards.add(rowNumbers(new ExcelDataProvider(ExcelShardingTest.class).shardedData(method)));
+			}
+		} finally {
+			System.clearProperty("shard.count");
+			System.clearProperty("shard.index");
+		}
+		assertCoverEveryRow(shards, 11);
+	}
+
+	private List<List<Integer>> readShards(String filter, String costColumn) {
+		List<List<Integer>> shards = new ArrayList<>();
+		for (int index = 0; index < SHARDS; index++) {
+			shards.add(rowNumbers(ReadExcel.getData("Sharded", "Sheet1", filter, new ShardSpec(index, SHARDS, costColumn))));
+		}
+		return shards;
+	}
+
+	private static void assertCoverEveryRow(List<List<Integer>> shards, int firstRow) {
+		Set<Integer> seen = new HashSet<>();
+		for (List<Integer> shard : shards) {
+			for (int row : shard) {
+				Assert.assertTrue(seen.add(row), "Row " + row + " is in more than one shard.");
+			}
+		}
+		Assert.assertEquals(seen.size(), ROWS - firstRow + 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Integer> rowNumbers(Object[][] data) {
+		List<Integer> rowNumbers = new ArrayList<>();
+		for (Object[] row : data) {
+			rowNumbers.add(Integer.valueOf(((Map<String, String>) row[0]).get("Row")));
+		}
+		return rowNumbers;
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void cleanup() {
+		System.clearProperty("excel.data.dir");
+		System.clearProperty("excel.snapshots");
+		SheetCache.clear();
+		new File(dataFolder, "Sharded.xlsx").delete();
+		dataFolder.delete();
+	}
+
+}
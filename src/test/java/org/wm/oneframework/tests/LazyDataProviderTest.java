@@ -0,0 +1,114 @@
+package org.wm.oneframework.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wm.oneframework.annotation.ExcelDetails;
+import org.wm.oneframework.excelreader.ExcelDataProvider;
+import org.wm.oneframework.exception.ExcelDetailException;
+
+/**
+ * The background parse of a lazy data provider must stop once the provider is abandoned, and a file which can't be
+ * read must fail the provider instead of handing no rows.
+ */
+public class LazyDataProviderTest {
+
+	private static final int ROWS = 5000;
+	private File dataFolder;
+
+	@BeforeClass
+	public void createFiles() throws IOException {
+		dataFolder = Files.createTempDirectory("excel-lazy").toFile();
+		ExcelFixtures.writeWorkbook(new File(dataFolder, "Lazy.xlsx"), 1, ROWS);
+		byte[] workbook = Files.readAllBytes(new File(dataFolder, "Lazy.xlsx").toPath());
+		Files.write(new File(dataFolder, "Broken.xlsx").toPath(), Arrays.copyOf(workbook, workbook.length / 2));
+		System.setProperty("excel.data.dir", dataFolder.getAbsolutePath());
+	}
+
+	@SuppressWarnings("excel-details")
+	@ExcelDetails(excelName = "Lazy", sheetName = "Sheet0")
+	public void lazyRows() {
+	}
+
+	@SuppressWarnings("excel-details")
+	@ExcelDetails(excelName = "Broken", sheetName = "Sheet0")
+	public void brokenRows() {
+	}
+
+	@Test
+	public void abandonedProviderStopsReading() throws Exception {
+		Iterator<Object[]> iterator = lazyData("lazyRows");
+		Assert.assertTrue(iterator.hasNext());
+		iterator.next();
+		Assert.assertTrue(isReading("Lazy.xlsx"));
+		iterator = null;
+		for (int i = 0; i < 100 && isReading("Lazy.xlsx"); i++) {
+			System.gc();
+			Thread.sleep(100);
+		}
+		Assert.assertFalse(isReading("Lazy.xlsx"));
+	}
+
+	@Test
+	public void providerNotTakenFromTimesOut() throws Exception {
+		System.setProperty("excel.lazy.timeout", "1");
+		Iterator<Object[]> iterator = lazyData("lazyRows");
+		Assert.assertTrue(iterator.hasNext());
+		for (int i = 0; i < 50 && isReading("Lazy.xlsx"); i++) {
+			Thread.sleep(100);
+		}
+		Assert.assertFalse(isReading("Lazy.xlsx"));
+		int rows = 0;
+		try {
+			while (iterator.hasNext()) {
+				iterator.next();
+				rows++;
+			}
+			Assert.fail("Rows asked for after the timeout must fail.");
+		} catch (ExcelDetailException e) {
+			Assert.assertTrue(rows > 0 && rows < ROWS, "rows handed before the timeout: " + rows);
+		}
+	}
+
+	@Test(expectedExceptions = ExcelDetailException.class)
+	public void unreadableFileFailsTheProvider() throws Exception {
+		lazyData("brokenRows").hasNext();
+	}
+
+	private static Iterator<Object[]> lazyData(String methodName) throws NoSuchMethodException {
+		Method method = LazyDataProviderTest.class.getMethod(methodName);
+		return new ExcelDataProvider(LazyDataProviderTest.class).lazyData(method);
+	}
+
+	private static boolean isReading(String fileName) {
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().equals("excel-row-reader-" + fileName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void resetTimeout() {
+		System.clearProperty("excel.lazy.timeout");
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void cleanup() {
+		System.clearProperty("excel.data.dir");
+		new File(dataFolder, "Lazy.xlsx").delete();
+		new File(dataFolder, "Broken.xlsx").delete();
+		dataFolder.delete();
+	}
+
+}
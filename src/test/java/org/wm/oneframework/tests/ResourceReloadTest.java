@@ -0,0 +1,87 @@
+package org.wm.oneframework.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.function.Supplier;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wm.oneframework.configprovider.ConfigProvider;
+import org.wm.oneframework.excelreader.ReadExcel;
+import org.wm.oneframework.excelreader.SheetCache;
+import org.wm.oneframework.listeners.ResourceReloadListener;
+
+/**
+ * Data and properties files edited during a run must be picked up in the background while readers keep getting the
+ * previous version.
+ */
+public class ResourceReloadTest {
+
+	private static final long TIMEOUT_MILLIS = 15000;
+	private File dataFolder;
+	private File propertiesFolder;
+	private final ResourceReloadListener listener = new ResourceReloadListener();
+
+	@BeforeClass
+	public void startWatching() throws IOException {
+		dataFolder = Files.createTempDirectory("reload-data").toFile();
+		propertiesFolder = Files.createTempDirectory("reload-properties").toFile();
+		write(new File(dataFolder, "Soak.csv"), "Name,Value\r\nfirst,1\r\n");
+		write(new File(propertiesFolder, "soak.properties"), "soak.value=1\n");
+		System.setProperty("excel.data.dir", dataFolder.getAbsolutePath());
+		System.setProperty("excel.snapshots", "false");
+		System.setProperty("config.properties.dir", propertiesFolder.getAbsolutePath());
+		ConfigProvider.reload(new File(propertiesFolder, "soak.properties"));
+		SheetCache.clear();
+		listener.onStart(null);
+	}
+
+	@Test
+	public void changedDataFileIsReloaded() throws IOException, InterruptedException {
+		Assert.assertEquals(ReadExcel.getData("Soak", "Soak").length, 1);
+		write(new File(dataFolder, "Soak.csv"), "Name,Value\r\nfirst,1\r\nsecond,2\r\nthird,3\r\n");
+		awaitValue(() -> ReadExcel.getData("Soak", "Soak").length, 3);
+	}
+
+	@Test
+	public void changedPropertiesFileIsReloaded() throws IOException, InterruptedException {
+		Assert.assertEquals(ConfigProvider.getAsString("soak.value"), "1");
+		Assert.assertEquals(ConfigProvider.getAsString("soak", "soak.value"), "1");
+		write(new File(propertiesFolder, "soak.properties"), "soak.value=22\n");
+		awaitValue(() -> ConfigProvider.getAsString("soak.value"), "22");
+		awaitValue(() -> ConfigProvider.getAsString("soak", "soak.value"), "22");
+	}
+
+	private static <T> void awaitValue(Supplier<T> reader, T expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		T value = reader.get();
+		while (!expected.equals(value) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+			value = reader.get();
+		}
+		Assert.assertEquals(value, expected);
+	}
+
+	private static void write(File file, String content) throws IOException {
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopWatching() {
+		listener.onFinish(null);
+		System.clearProperty("excel.data.dir");
+		System.clearProperty("excel.snapshots");
+		System.clearProperty("config.properties.dir");
+		ConfigProvider.reload(new File(propertiesFolder, "soak.properties"));
+		SheetCache.clear();
+		new File(dataFolder, "Soak.csv").delete();
+		new File(propertiesFolder, "soak.properties").delete();
+		dataFolder.delete();
+		propertiesFolder.delete();
+	}
+
+}
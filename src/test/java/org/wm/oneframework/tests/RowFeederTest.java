@@ -0,0 +1,127 @@
+package org.wm.oneframework.tests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wm.oneframework.excelreader.RowFeeder;
+import org.wm.oneframework.excelreader.RowFeeder.EndOfData;
+import org.wm.oneframework.excelreader.RowFeeder.Mode;
+
+/**
+ * Row feeders shared by many threads must hand out every row as their mode promises.
+ */
+public class RowFeederTest {
+
+	private static final int ROWS = 10000;
+	private static final int THREADS = 64;
+
+	private static List<Map<String, String>> rows() {
+		List<Map<String, String>> rows = new ArrayList<>(ROWS);
+		for (int r = 0; r < ROWS; r++) {
+			rows.add(Collections.singletonMap("Row", String.valueOf(r)));
+		}
+		return rows;
+	}
+
+	@Test
+	public void sequentialFeederHandsEveryRowOnce() throws InterruptedException {
+		RowFeeder feeder = new RowFeeder(rows(), Mode.SEQUENTIAL, EndOfData.STOP);
+		AtomicIntegerArray handed = new AtomicIntegerArray(ROWS);
+		runThreads(() -> {
+			Map<String, String> row;
+			while ((row = feeder.next()) != null) {
+				handed.incrementAndGet(Integer.parseInt(row.get("Row")));
+			}
+		});
+		for (int r = 0; r < ROWS; r++) {
+			Assert.assertEquals(handed.get(r), 1, "Row " + r + " handed " + handed.get(r) + " times.");
+		}
+	}
+
+	@Test
+	public void sequentialFeederRecycles() {
+		RowFeeder feeder = new RowFeeder(rows(), Mode.SEQUENTIAL, EndOfData.RECYCLE);
+		for (int i = 0; i < ROWS * 2 + 5; i++) {
+			Assert.assertEquals(feeder.next().get("Row"), String.valueOf(i % ROWS));
+		}
+	}
+
+	@Test
+	public void perThreadFeederHandsEveryRowToOneThread() throws InterruptedException {
+		RowFeeder feeder = new RowFeeder(rows(), Mode.PER_THREAD, EndOfData.STOP, THREADS);
+		AtomicIntegerArray handed = new AtomicIntegerArray(ROWS);
+		Map<String, Boolean> failures = new ConcurrentHashMap<>();
+		runThreads(() -> {
+			int previous = -1;
+			Map<String, String> row;
+			while ((row = feeder.next()) != null) {
+				int r = Integer.parseInt(row.get("Row"));
+				handed.incrementAndGet(r);
+				if (previous >= 0 && r != previous + THREADS) {
+					failures.put(Thread.currentThread().getName(), true);
+				}
+				previous = r;
+			}
+		});
+		Assert.assertTrue(failures.isEmpty(), "Threads out of their share: " + failures.keySet());
+		for (int r = 0; r < ROWS; r++) {
+			Assert.assertEquals(handed.get(r), 1, "Row " + r + " handed " + handed.get(r) + " times.");
+		}
+	}
+
+	@Test
+	public void perThreadFeederRecyclesTheShareOfTheThread() {
+		RowFeeder feeder = new RowFeeder(rows(), Mode.PER_THREAD, EndOfData.RECYCLE, 3);
+		int share = (ROWS + 2) / 3;
+		for (int i = 0; i < share * 2 + 5; i++) {
+			Assert.assertEquals(feeder.next().get("Row"), String.valueOf(i % share * 3));
+		}
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void perThreadFeederRefusesMoreThreadsThanGiven() throws Throwable {
+		RowFeeder feeder = new RowFeeder(rows(), Mode.PER_THREAD, EndOfData.STOP, 1);
+		feeder.next();
+		Throwable[] failure = new Throwable[1];
+		Thread thread = new Thread(() -> {
+			try {
+				feeder.next();
+			} catch (Throwable e) {
+				failure[0] = e;
+			}
+		});
+		thread.start();
+		thread.join();
+		throw failure[0];
+	}
+
+	@Test
+	public void randomFeederStopsAfterAsManyRowsAsTheSheetHas() throws InterruptedException {
+		RowFeeder feeder = new RowFeeder(rows(), Mode.RANDOM, EndOfData.STOP);
+		AtomicIntegerArray handed = new AtomicIntegerArray(1);
+		runThreads(() -> {
+			while (feeder.next() != null) {
+				handed.incrementAndGet(0);
+			}
+		});
+		Assert.assertEquals(handed.get(0), ROWS);
+	}
+
+	private static void runThreads(Runnable sampler) throws InterruptedException {
+		List<Thread> threads = new ArrayList<>(THREADS);
+		for (int t = 0; t < THREADS; t++) {
+			threads.add(new Thread(sampler, "sampler-" + t));
+		}
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+package org.wm.oneframework.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wm.oneframework.excelreader.SheetData;
+import org.wm.oneframework.excelreader.SheetSchema;
+
+/**
+ * Row maps must behave like the LinkedHashMap the row used to be put into, and modifying one must not change the
+ * cached row.
+ */
+public class RowMapTest {
+
+	private static final String[] HEADERS = { "Name", "Code", "Name", "Env" };
+	private static final String[] VALUES = { "first", "A1", "last", "qa2" };
+
+	@Test
+	public void duplicateHeaderKeepsFirstPositionAndLastValue() {
+		Map<String, String> row = newRow();
+		Assert.assertEquals(row.size(), 3);
+		Assert.assertEquals(row.get("Name"), "last");
+		Assert.assertEquals(row, expectedRow());
+		Assert.assertEquals(row.hashCode(), expectedRow().hashCode());
+	}
+
+	@Test
+	public void entrySetIsInHeaderOrder() {
+		List<String> keys = new ArrayList<>();
+		List<String> values = new ArrayList<>();
+		for (Map.Entry<String, String> entry : newRow().entrySet()) {
+			keys.add(entry.getKey());
+			values.add(entry.getValue());
+		}
+		Assert.assertEquals(keys, Arrays.asList("Name", "Code", "Env"));
+		Assert.assertEquals(values, Arrays.asList("last", "A1", "qa2"));
+	}
+
+	@Test
+	public void missingAndNonStringKeysAreAbsent() {
+		Map<String, String> row = newRow();
+		Assert.assertNull(row.get("Missing"));
+		Assert.assertNull(row.get(1));
+		Assert.assertNull(row.get(null));
+		Assert.assertFalse(row.containsKey("Missing"));
+		Assert.assertFalse(row.containsKey(1));
+	}
+
+	@Test
+	public void modifiedRowIsCopiedFirst() {
+		SheetData sheetData = newSheetData();
+		Map<String, String> row = sheetData.getRowAsMap(0);
+		row.put("Code", "B2");
+		row.put("Extra", "x");
+		row.remove("Env");
+		Assert.assertEquals(row.get("Code"), "B2");
+		Assert.assertEquals(new ArrayList<>(row.keySet()), Arrays.asList("Name", "Code", "Extra"));
+		Assert.assertEquals(sheetData.getRowAsMap(0), expectedRow());
+	}
+
+	private static Map<String, String> newRow() {
+		return newSheetData().getRowAsMap(0);
+	}
+
+	private static SheetData newSheetData() {
+		List<String[]> rows = new ArrayList<>();
+		rows.add(VALUES.clone());
+		return new SheetData(new SheetSchema(HEADERS), rows);
+	}
+
+	private static Map<String, String> expectedRow() {
+		Map<String, String> expected = new LinkedHashMap<>();
+		for (int i = 0; i < HEADERS.length; i++) {
+			expected.put(HEADERS[i], VALUES[i]);
+		}
+		return expected;
+	}
+
+}
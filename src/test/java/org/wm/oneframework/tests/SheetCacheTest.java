@@ -0,0 +1,134 @@
+package org.wm.oneframework.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wm.oneframework.excelreader.SheetCache;
+import org.wm.oneframework.excelreader.SheetData;
+import org.wm.oneframework.excelreader.SheetSchema;
+import org.wm.oneframework.exception.ExcelDetailException;
+
+/**
+ * Hit, miss and wait counting of the sheet cache, invalidation of edited files and failed loads never being cached.
+ */
+public class SheetCacheTest {
+
+	private final AtomicInteger loads = new AtomicInteger();
+	private File dataFile;
+
+	@BeforeMethod
+	public void createFile() throws IOException {
+		dataFile = Files.createTempFile("sheet-cache", ".csv").toFile();
+		Files.write(dataFile.toPath(), "Name\nfirst\n".getBytes(StandardCharsets.UTF_8));
+		loads.set(0);
+		SheetCache.clear();
+	}
+
+	@Test
+	public void secondLookupIsAHit() {
+		long hits = SheetCache.getHitCount();
+		long misses = SheetCache.getMissCount();
+		SheetData first = SheetCache.get(dataFile, "Sheet1", this::load);
+		Assert.assertSame(SheetCache.get(dataFile, "Sheet1", this::load), first);
+		Assert.assertEquals(loads.get(), 1);
+		Assert.assertEquals(SheetCache.getMissCount() - misses, 1);
+		Assert.assertEquals(SheetCache.getHitCount() - hits, 1);
+	}
+
+	@Test
+	public void changedSizeIsParsedAgain() throws IOException {
+		long lastModified = dataFile.lastModified();
+		SheetData first = SheetCache.get(dataFile, "Sheet1", this::load);
+		Files.write(dataFile.toPath(), "Name\nfirst\nsecond\n".getBytes(StandardCharsets.UTF_8));
+		Assert.assertTrue(dataFile.setLastModified(lastModified));
+		Assert.assertNotSame(SheetCache.get(dataFile, "Sheet1", this::load), first);
+		Assert.assertEquals(loads.get(), 2);
+	}
+
+	@Test
+	public void changedLastModifiedIsParsedAgain() {
+		SheetData first = SheetCache.get(dataFile, "Sheet1", this::load);
+		Assert.assertTrue(dataFile.setLastModified(dataFile.lastModified() - 10_000));
+		Assert.assertNotSame(SheetCache.get(dataFile, "Sheet1", this::load), first);
+		Assert.assertEquals(loads.get(), 2);
+	}
+
+	@Test
+	public void failedLoadIsNotCached() {
+		try {
+			SheetCache.get(dataFile, "Sheet1", () -> {
+				throw new ExcelDetailException("Not able to read the sheet.");
+			});
+			Assert.fail("The load failure must reach the caller.");
+		} catch (ExcelDetailException e) {
+			Assert.assertEquals(SheetCache.size(), 0);
+		}
+		SheetCache.get(dataFile, "Sheet1", this::load);
+		Assert.assertEquals(loads.get(), 1);
+	}
+
+	@Test
+	public void waitingForAnInFlightLoadIsNotAHit() throws InterruptedException {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread loader = new Thread(() -> SheetCache.get(dataFile, "Sheet1", () -> {
+			loading.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return load();
+		}));
+		loader.start();
+		loading.await();
+		long hits = SheetCache.getHitCount();
+		long waits = SheetCache.getWaitCount();
+		Thread waiter = new Thread(() -> SheetCache.get(dataFile, "Sheet1", this::load));
+		waiter.start();
+		while (SheetCache.getWaitCount() == waits && waiter.isAlive()) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+		loader.join();
+		waiter.join();
+		Assert.assertEquals(SheetCache.getWaitCount() - waits, 1);
+		Assert.assertEquals(SheetCache.getHitCount(), hits);
+		Assert.assertEquals(loads.get(), 1);
+	}
+
+	@Test
+	public void resetCapacityDropsTheEldestSheets() {
+		SheetCache.ensureCapacity(20);
+		for (int i = 0; i < 20; i++) {
+			SheetCache.get(dataFile, "Sheet" + i, this::load);
+		}
+		Assert.assertEquals(SheetCache.size(), 20);
+		SheetCache.resetCapacity();
+		Assert.assertEquals(SheetCache.size(), 16);
+		Assert.assertEquals(loads.get(), 20);
+		SheetCache.get(dataFile, "Sheet19", this::load);
+		Assert.assertEquals(loads.get(), 20);
+	}
+
+	private SheetData load() {
+		loads.incrementAndGet();
+		return new SheetData(new SheetSchema(new String[] { "Name" }), Collections.emptyList());
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void deleteFile() {
+		SheetCache.clear();
+		dataFile.delete();
+	}
+
+}
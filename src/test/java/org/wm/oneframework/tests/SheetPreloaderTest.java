@@ -0,0 +1,77 @@
+package org.wm.oneframework.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wm.oneframework.excelreader.ExcelSource;
+import org.wm.oneframework.excelreader.ReadExcel;
+import org.wm.oneframework.excelreader.SheetCache;
+import org.wm.oneframework.excelreader.SheetPreloader;
+
+/**
+ * Preloaded sheets must be served from the cache, and sheets which can't be loaded must not stop the preload.
+ */
+public class SheetPreloaderTest {
+
+	private static final int WORKBOOKS = 6;
+	private static final int SHEETS = 3;
+	private static final int ROWS = 200;
+	private File dataFolder;
+
+	@BeforeClass
+	public void createWorkbooks() throws IOException {
+		dataFolder = Files.createTempDirectory("excel-preload").toFile();
+		for (int w = 0; w < WORKBOOKS; w++) {
+			ExcelFixtures.writeWorkbook(new File(dataFolder, "Preload" + w + ".xlsx"), SHEETS, ROWS);
+		}
+		System.setProperty("excel.data.dir", dataFolder.getAbsolutePath());
+		System.setProperty("excel.snapshots", "false");
+		SheetCache.clear();
+	}
+
+	@Test
+	public void preloadedSheetsAreServedFromTheCache() {
+		List<ExcelSource> excelSources = new ArrayList<>();
+		for (int w = 0; w < WORKBOOKS; w++) {
+			for (int s = 0; s < SHEETS; s++) {
+				excelSources.add(new ExcelSource("Preload" + w, "Sheet" + s, ""));
+				excelSources.add(new ExcelSource("Preload" + w, "Sheet" + s, "Amount > 3"));
+			}
+		}
+		excelSources.add(new ExcelSource("Missing", "Sheet1", ""));
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			int loaded = SheetPreloader.preload(excelSources, pool).join();
+			Assert.assertEquals(loaded, WORKBOOKS * SHEETS);
+		} finally {
+			pool.shutdown();
+		}
+		long misses = SheetCache.getMissCount();
+		for (int w = 0; w < WORKBOOKS; w++) {
+			for (int s = 0; s < SHEETS; s++) {
+				Assert.assertEquals(ReadExcel.getData("Preload" + w, "Sheet" + s).length, ROWS);
+			}
+		}
+		Assert.assertEquals(SheetCache.getMissCount(), misses);
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void cleanup() {
+		System.clearProperty("excel.data.dir");
+		System.clearProperty("excel.snapshots");
+		SheetCache.clear();
+		for (int w = 0; w < WORKBOOKS; w++) {
+			new File(dataFolder, "Preload" + w + ".xlsx").delete();
+		}
+		dataFolder.delete();
+	}
+
+}
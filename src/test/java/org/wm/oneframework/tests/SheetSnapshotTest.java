@@ -0,0 +1,138 @@
+package org.wm.oneframework.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wm.oneframework.excelreader.ReadExcel;
+import org.wm.oneframework.excelreader.SheetCache;
+import org.wm.oneframework.excelreader.SheetSnapshotCompiler;
+
+/**
+ * Sheets read back from their snapshot must equal the parsed sheets, and a snapshot must only be used for a workbook of
+ * the same name and content and the reader it was taken from.
+ */
+public class SheetSnapshotTest {
+
+	private static final int ROWS = 300;
+	private File dataFolder;
+	private File otherDataFolder;
+	private File snapshotFolder;
+
+	@BeforeClass
+	public void createWorkbooks() throws IOException {
+		dataFolder = Files.createTempDirectory("excel-snapshot-data").toFile();
+		otherDataFolder = Files.createTempDirectory("excel-snapshot-other").toFile();
+		snapshotFolder = Files.createTempDirectory("excel-snapshots").toFile();
+		ExcelFixtures.writeWorkbook(new File(dataFolder, "Snapshot.xlsx"), 1, ROWS);
+		ExcelFixtures.writeWorkbook(new File(otherDataFolder, "Snapshot.xlsx"), 1, ROWS / 2);
+	}
+
+	@BeforeMethod
+	public void enableSnapshots() {
+		System.setProperty("excel.snapshots", "true");
+		System.setProperty("excel.snapshot.dir", snapshotFolder.getAbsolutePath());
+		System.setProperty("excel.data.dir", dataFolder.getAbsolutePath());
+		SheetCache.clear();
+	}
+
+	@Test
+	public void snapshotRoundTrip() {
+		List<Map<String, String>> parsed = ReadExcel.readData("Snapshot", "Sheet0");
+		File[] snapshots = snapshotFolder.listFiles();
+		Assert.assertEquals(snapshots.length, 1);
+		long written = setOld(snapshots[0]);
+		SheetCache.clear();
+		Assert.assertEquals(ReadExcel.readData("Snapshot", "Sheet0"), parsed);
+		Assert.assertEquals(snapshots[0].lastModified(), written, "the current snapshot must be read, not written again");
+	}
+
+	@Test
+	public void sameNamedWorkbookWithOtherContentIsParsed() {
+		Assert.assertEquals(ReadExcel.readData("Snapshot", "Sheet0").size(), ROWS);
+		System.setProperty("excel.data.dir", otherDataFolder.getAbsolutePath());
+		SheetCache.clear();
+		Assert.assertEquals(ReadExcel.readData("Snapshot", "Sheet0").size(), ROWS / 2);
+		System.setProperty("excel.data.dir", dataFolder.getAbsolutePath());
+		SheetCache.clear();
+		Assert.assertEquals(ReadExcel.readData("Snapshot", "Sheet0").size(), ROWS);
+	}
+
+	@Test
+	public void compiledSnapshotsAreReadFromTheClasspathCopy() throws IOException {
+		SheetSnapshotCompiler.main(new String[] { "src/test/resources/data", snapshotFolder.getAbsolutePath() });
+		System.clearProperty("excel.data.dir");
+		File[] snapshots = snapshotFolder.listFiles();
+		Assert.assertTrue(snapshots.length > 0);
+		for (File snapshot : snapshots) {
+			String[] nameParts = snapshot.getName().split("\\.");
+			Assert.assertEquals(nameParts[0] + "." + nameParts[1], "LoginTest.xlsx");
+			String sheetName = URLDecoder.decode(nameParts[2], "UTF-8");
+			long written = setOld(snapshot);
+			SheetCache.clear();
+			List<Map<String, String>> fromSnapshot = ReadExcel.readData("LoginTest", sheetName);
+			Assert.assertEquals(snapshot.lastModified(), written, "the compiled snapshot must be read, not written again");
+			System.setProperty("excel.snapshots", "false");
+			SheetCache.clear();
+			Assert.assertEquals(fromSnapshot, ReadExcel.readData("LoginTest", sheetName));
+			System.setProperty("excel.snapshots", "true");
+		}
+	}
+
+	@Test
+	public void snapshotOfAnotherReaderIsNotUsed() {
+		System.setProperty("excel.streaming", "true");
+		ReadExcel.readData("Snapshot", "Sheet0");
+		File snapshot = snapshotFolder.listFiles()[0];
+		long written = setOld(snapshot);
+		System.setProperty("excel.streaming", "false");
+		SheetCache.clear();
+		ReadExcel.readData("Snapshot", "Sheet0");
+		Assert.assertNotEquals(snapshot.lastModified(), written, "the snapshot of the streaming reader must be replaced");
+	}
+
+	@Test
+	public void snapshotsAreOffByDefault() {
+		System.clearProperty("excel.snapshots");
+		System.clearProperty("excel.snapshot.dir");
+		ReadExcel.readData("Snapshot", "Sheet0");
+		Assert.assertEquals(snapshotFolder.listFiles().length, 0);
+	}
+
+	private static long setOld(File file) {
+		long old = file.lastModified() - 60_000;
+		Assert.assertTrue(file.setLastModified(old));
+		return file.lastModified();
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void deleteSnapshots() {
+		System.clearProperty("excel.snapshots");
+		System.clearProperty("excel.snapshot.dir");
+		System.clearProperty("excel.streaming");
+		SheetCache.clear();
+		for (File snapshot : snapshotFolder.listFiles()) {
+			snapshot.delete();
+		}
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void cleanup() {
+		System.clearProperty("excel.data.dir");
+		new File(dataFolder, "Snapshot.xlsx").delete();
+		new File(otherDataFolder, "Snapshot.xlsx").delete();
+		dataFolder.delete();
+		otherDataFolder.delete();
+		snapshotFolder.delete();
+	}
+
+}